@@ -0,0 +1,64 @@
+package com.company.benchmarks;
+
+import com.company.Game.PositionFormat;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+
+/**
+ * Фиксированный набор позиций для бенчмарков в записи {@link PositionFormat}.
+ */
+public final class BenchmarkPositions {
+    public static final String OPENING = "opening";
+    public static final String MIDGAME = "midgame";
+    public static final String JAM = "jam";
+
+    private static final String OPENING_POSITION =
+            "....xxxx/....xxxx/....xxxx/......../......../oooo..../oooo..../oooo....";
+
+    private static final String MIDGAME_POSITION =
+            "....x.xx/....xx.x/...x.x../.o..x.x./..o.o..x/.o.o.o../oo.o.x../o.o.o...";
+
+    // Фигуры сцеплены в центре доски, поэтому почти каждый ход - длинная цепочка прыжков.
+    private static final String JAM_POSITION =
+            "......../..xoxo../..oxox../..xoxo../..oxox../..xoxo../..oxox../........";
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Создает игру с указанной позицией, в которой ходят белые.
+     *
+     * @param name Название позиции: {@link #OPENING}, {@link #MIDGAME} или {@link #JAM}.
+     * @return Игра в указанной позиции
+     */
+    public static UgolkiGame create(String name) {
+        Board board = new Board();
+        UgolkiGame game = new UgolkiGame(board, new Player("White"), new Player("Black"),
+                new UgolkiPathChecker(board), new UgolkiWinCriteria());
+        game.startGame();
+
+        BitBoard position = new BitBoard(board.getWidth(), board.getHeight());
+        PositionFormat.parse(text(name), position);
+        game.setPosition(position, Figure.Color.WHITE);
+
+        return game;
+    }
+
+    private static String text(String name) {
+        switch (name) {
+            case OPENING:
+                return OPENING_POSITION;
+            case MIDGAME:
+                return MIDGAME_POSITION;
+            case JAM:
+                return JAM_POSITION;
+            default:
+                throw new IllegalArgumentException("Неизвестная позиция: " + name);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.company.benchmarks;
+
+import com.company.Engine.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность генератора ходов вместе с make/unmake на дереве perft фиксированной глубины.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDGAME, BenchmarkPositions.JAM})
+    public String position;
+
+    @Param({"3"})
+    public int depth;
+
+    private Perft perft;
+
+    @Setup
+    public void setUp() {
+        perft = new Perft(BenchmarkPositions.create(position));
+    }
+
+    @Benchmark
+    public long perft() {
+        return perft.perft(depth);
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.benchmarks;
+
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiMoveGenerator;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Cell;
+import com.company.Model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки правил игры: проверка и генерация ходов, доступ к клеткам доски, проверка победы и оценка.
+ * Каждый бенчмарк выполняется на дебютной, миттельшпильной и "затороженной" позициях.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDGAME, BenchmarkPositions.JAM})
+    public String position;
+
+    private UgolkiGame game;
+    private Board board;
+    private Player whitePlayer;
+    private UgolkiPathChecker pathChecker;
+    private UgolkiWinCriteria winCriteria;
+    private UgolkiMoveGenerator moveGenerator;
+    private Cell moveFrom;
+    private Cell moveTo;
+    private Cell centerCell;
+    private int[] moves;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.create(position);
+        board = game.getBoard();
+        whitePlayer = game.getActivePlayer();
+        pathChecker = new UgolkiPathChecker(board);
+        winCriteria = new UgolkiWinCriteria();
+        moveGenerator = new UgolkiMoveGenerator(board.getBitBoard());
+        moves = new int[UgolkiMoveGenerator.MAX_MOVES];
+
+        // Самый дальний ход белых: для дебюта - прыжок, для затора - длинная цепочка прыжков.
+        BitBoard bitBoard = board.getBitBoard();
+        int count = game.generateMoves(moves, 0);
+        int longest = moves[0];
+        for (int i = 1; i < count; i++) {
+            if (distance(bitBoard, moves[i]) > distance(bitBoard, longest)) {
+                longest = moves[i];
+            }
+        }
+        moveFrom = cellAt(bitBoard, Move.from(longest));
+        moveTo = cellAt(bitBoard, Move.to(longest));
+        centerCell = board.getCellAt(3, 3);
+    }
+
+    @Benchmark
+    public void checkMovePossibility() {
+        pathChecker.checkMovePossibility(whitePlayer, moveFrom, moveTo);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return moveGenerator.generateMoves(whitePlayer.getColor(), moves);
+    }
+
+    @Benchmark
+    public void getCellAt(Blackhole blackhole) {
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                blackhole.consume(board.getCellAt(x, y));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object getNeighbourCells() {
+        return board.getNeighbourCells(centerCell);
+    }
+
+    @Benchmark
+    public Object checkForWinner() {
+        return winCriteria.checkForWinner(board, whitePlayer);
+    }
+
+    @Benchmark
+    public int evaluation() {
+        return game.evaluation(board, whitePlayer);
+    }
+
+    @Benchmark
+    public int incrementalEvaluation() {
+        return game.evaluation(whitePlayer.getColor());
+    }
+
+    private Cell cellAt(BitBoard bitBoard, int square) {
+        return board.getCellAt(bitBoard.getX(square), bitBoard.getY(square));
+    }
+
+    private static int distance(BitBoard bitBoard, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        return Math.abs(bitBoard.getX(from) - bitBoard.getX(to)) + Math.abs(bitBoard.getY(from) - bitBoard.getY(to));
+    }
+}
@@ -0,0 +1,73 @@
+package com.company.benchmarks;
+
+import com.company.Engine.LazySmpSearch;
+import com.company.Engine.SearchResult;
+import com.company.Engine.TranspositionTable;
+import com.company.Game.UgolkiGame;
+
+/**
+ * Отчет о масштабировании параллельного поиска {@link LazySmpSearch} по числу потоков.
+ *
+ * Для каждой позиции и каждого числа потоков (1, 2, 4, ... и сам максимум, даже если он не степень
+ * двойки) поиск выполняется до фиксированной глубины со свежей таблицей транспозиций. В отчет выводятся
+ * время до глубины, скорость в узлах в секунду и ускорение относительно одного потока по обоим показателям.
+ *
+ * Использование: {@code java -cp benchmarks/target/benchmarks.jar com.company.benchmarks.SmpScalingReport
+ * [глубина] [максимум потоков] [мегабайты]}.
+ */
+public class SmpScalingReport {
+    private static final int DEFAULT_DEPTH = 8;
+    private static final int DEFAULT_HASH_MB = 64;
+    private static final String[] POSITIONS = { BenchmarkPositions.OPENING, BenchmarkPositions.MIDGAME };
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int hashMb = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_HASH_MB;
+
+        System.out.printf("depth %d, up to %d threads, hash %d MB%n", depth, maxThreads, hashMb);
+        for (String position : POSITIONS) {
+            System.out.println();
+            System.out.println(position);
+            System.out.printf("%8s %10s %14s %12s %12s %6s%n",
+                    "threads", "ms", "nodes/s", "time x", "nps x", "move");
+
+            // Прогрев JIT, чтобы первая строка отчета не включала время компиляции
+            run(position, 1, depth, hashMb);
+
+            SearchResult base = null;
+            for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+                SearchResult result = run(position, threads, depth, hashMb);
+                if (base == null) {
+                    base = result;
+                }
+
+                System.out.printf("%8d %10d %14d %12.2f %12.2f %6s%n",
+                        threads, result.getElapsedMillis(), result.getNodesPerSecond(),
+                        (double) Math.max(1, base.getElapsedMillis()) / Math.max(1, result.getElapsedMillis()),
+                        (double) result.getNodesPerSecond() / Math.max(1, base.getNodesPerSecond()),
+                        BenchmarkPositions.create(position).moveToString(result.getBestMove()));
+            }
+        }
+    }
+
+    /**
+     * Следующее число потоков: удвоение, но не больше максимума, чтобы последней строкой отчета всегда
+     * был сам максимум (например, 1, 2, 4, 8, 12 для 12 ядер).
+     *
+     * @return Следующее число потоков или значение больше максимума, если отчет закончен.
+     */
+    static int nextThreadCount(int threads, int maxThreads) {
+        return threads >= maxThreads ? maxThreads + 1 : Math.min(threads * 2, maxThreads);
+    }
+
+    private static SearchResult run(String position, int threads, int depth, int hashMb) {
+        UgolkiGame game = BenchmarkPositions.create(position);
+        LazySmpSearch search = new LazySmpSearch(threads, new TranspositionTable(hashMb));
+        try {
+            return search.search(game, Long.MAX_VALUE / 2, depth);
+        } finally {
+            search.shutdown();
+        }
+    }
+}
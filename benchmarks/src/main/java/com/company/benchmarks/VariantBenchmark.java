@@ -0,0 +1,84 @@
+package com.company.benchmarks;
+
+import com.company.Engine.Perft;
+import com.company.Game.GameVariant;
+import com.company.Game.UgolkiGame;
+import com.company.Model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость правил на досках разного размера: генерация ходов, make/unmake и perft для стандартной
+ * доски 8x8, где маска цвета занимает одно слово, и для досок 10x10 и 12x12, где маска занимает два и
+ * три слова. Позиция - начальная расстановка после фиксированной серии случайных ходов, поэтому фигуры
+ * уже вышли из лагерей и прыгают друг через друга.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariantBenchmark {
+    private static final long SEED = 22;
+
+    @Param({"8x8:4x3", "10x10:4x4", "12x12:5x5"})
+    public String variant;
+
+    @Param({"3"})
+    public int depth;
+
+    private UgolkiGame game;
+    private Perft perft;
+    private int[] moves;
+
+    @Setup
+    public void setUp() {
+        game = GameVariant.parse(variant).createGame(new Player("White"), new Player("Black"));
+        game.startGame();
+        moves = new int[game.getMaxMoves()];
+
+        // Каждая сторона делает по ходу на каждую свою фигуру.
+        SplittableRandom random = new SplittableRandom(SEED);
+        int plies = 2 * game.getWinCriteria().getPieceCount();
+        for (int i = 0; i < plies; i++) {
+            int count = game.generateMoves(moves, 0);
+            game.makeMove(moves[random.nextInt(count)]);
+        }
+        perft = new Perft(game);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return game.generateMoves(moves, 0);
+    }
+
+    @Benchmark
+    public int makeUnmakeMoves() {
+        int count = game.generateMoves(moves, 0);
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            sum += game.evaluation(game.getActiveColor());
+            game.unmakeMove(moves[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long perft() {
+        return perft.perft(depth);
+    }
+}
@@ -0,0 +1,56 @@
+package com.company.Analysis;
+
+/**
+ * Двоичный колоночный формат результатов анализа архива партий.
+ *
+ * Файл начинается с сигнатуры {@code 'U' 'G' 'A'} и номера версии, за которыми идут блоки. Блок
+ * начинается с байта типа ({@link #BLOCK_POSITIONS} или {@link #BLOCK_GAMES}) и количества строк в
+ * формате varint (см. {@link com.company.Record.GameRecordFormat#writeVarint}), затем подряд идут
+ * колонки блока: все значения первой колонки, затем все значения второй и так далее. Значения имеют
+ * фиксированную ширину и записаны в порядке big-endian, поэтому колонку можно прочитать или
+ * пропустить, не разбирая остальные.
+ *
+ * Колонки блока позиций, по строке на каждый ход партии:
+ * <ul>
+ *     <li>номер партии в архиве от 0 - int;</li>
+ *     <li>номер хода в партии от 0 - int;</li>
+ *     <li>цвет ходившей стороны (порядковый номер) - byte;</li>
+ *     <li>сделанный ход (см. {@link com.company.Game.Move}) - short;</li>
+ *     <li>лучший ход по поиску - short;</li>
+ *     <li>оценка позиции перед ходом с точки зрения ходившей стороны - int;</li>
+ *     <li>потеря оценки из-за сделанного хода, не меньше 0 - int;</li>
+ *     <li>флаги - byte: {@link #FLAG_BEST}, {@link #FLAG_BLUNDER}.</li>
+ * </ul>
+ *
+ * Колонки блока партий:
+ * <ul>
+ *     <li>номер партии в архиве - int;</li>
+ *     <li>количество ходов - int;</li>
+ *     <li>итог в кодировке {@link com.company.Record.GameRecordFormat} - byte;</li>
+ *     <li>точность белых и черных в процентах - по float;</li>
+ *     <li>количество грубых ошибок белых и черных - по short.</li>
+ * </ul>
+ *
+ * Партии записываются в порядке завершения анализа, а не в порядке архива.
+ */
+public final class AnalysisFormat {
+    public static final byte[] MAGIC = { 'U', 'G', 'A' };
+    public static final int VERSION = 1;
+    public static final int BLOCK_POSITIONS = 1;
+    public static final int BLOCK_GAMES = 2;
+    /**
+     * Сделанный ход совпадает с лучшим ходом поиска.
+     */
+    public static final int FLAG_BEST = 1;
+    /**
+     * Потеря оценки не меньше порога грубой ошибки.
+     */
+    public static final int FLAG_BLUNDER = 2;
+    /**
+     * Наибольшее количество строк в блоке.
+     */
+    public static final int BLOCK_ROWS = 4096;
+
+    private AnalysisFormat() {
+    }
+}
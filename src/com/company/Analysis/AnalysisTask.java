@@ -0,0 +1,73 @@
+package com.company.Analysis;
+
+import com.company.Game.WinCheckResponse;
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+import com.company.Record.GameRecordReader;
+
+import java.util.Arrays;
+
+/**
+ * Партия в конвейере анализа: ходы из архива и результаты анализа по ходам. Задачи переиспользуются
+ * между партиями, массивы растут до самой длинной партии и больше не выделяются.
+ */
+class AnalysisTask {
+    long index;
+    int width;
+    int height;
+    int campWidth;
+    int campHeight;
+    Figure.Color firstToMove;
+    BitBoard startPosition;
+    boolean customStart;
+    WinCheckResponse.Status status;
+    Figure.Color winner;
+    int[] moves = new int[128];
+    int moveCount;
+
+    // Результаты анализа: по элементу на каждый ход партии
+    byte[] sides = new byte[128];
+    int[] scores = new int[129];
+    int[] bestMoves = new int[129];
+    int[] losses = new int[128];
+    int positions;
+    long nodes;
+    String error;
+
+    /**
+     * Копирует прочитанную партию в задачу.
+     */
+    void load(GameRecordReader reader) {
+        index = reader.getGamesRead() - 1;
+        width = reader.getWidth();
+        height = reader.getHeight();
+        campWidth = reader.getCampWidth();
+        campHeight = reader.getCampHeight();
+        firstToMove = reader.getFirstToMove();
+        status = reader.getStatus();
+        winner = reader.getWinner();
+
+        if (startPosition == null || startPosition.getWidth() != width || startPosition.getHeight() != height) {
+            startPosition = width * height > 0 && width * height <= BitBoard.MAX_SQUARES
+                    ? new BitBoard(width, height) : null;
+        }
+        customStart = startPosition != null && reader.copyStartPosition(startPosition);
+
+        moveCount = reader.getMoveCount();
+        if (moves.length < moveCount) {
+            moves = new int[Math.max(moveCount, moves.length * 2)];
+            sides = new byte[moves.length];
+            scores = new int[moves.length + 1];
+            bestMoves = new int[moves.length + 1];
+            losses = new int[moves.length];
+        }
+        for (int i = 0; i < moveCount; i++) {
+            moves[i] = reader.getMove(i);
+        }
+
+        Arrays.fill(losses, 0, moveCount, 0);
+        positions = 0;
+        nodes = 0;
+        error = null;
+    }
+}
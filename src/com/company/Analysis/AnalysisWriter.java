@@ -0,0 +1,156 @@
+package com.company.Analysis;
+
+import com.company.Record.GameRecordFormat;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Потоковая запись результатов анализа в формате {@link AnalysisFormat}.
+ *
+ * Строки копятся по колонкам в буферах фиксированного размера и записываются блоком, когда буфер
+ * заполняется, поэтому объем памяти не зависит от количества партий. Незаписанные строки
+ * записываются при закрытии. Экземпляр не потокобезопасен.
+ */
+public class AnalysisWriter implements Closeable {
+    private final DataOutputStream out;
+
+    private final int[] positionGames = new int[AnalysisFormat.BLOCK_ROWS];
+    private final int[] plies = new int[AnalysisFormat.BLOCK_ROWS];
+    private final byte[] sides = new byte[AnalysisFormat.BLOCK_ROWS];
+    private final short[] playedMoves = new short[AnalysisFormat.BLOCK_ROWS];
+    private final short[] bestMoves = new short[AnalysisFormat.BLOCK_ROWS];
+    private final int[] scores = new int[AnalysisFormat.BLOCK_ROWS];
+    private final int[] losses = new int[AnalysisFormat.BLOCK_ROWS];
+    private final byte[] flags = new byte[AnalysisFormat.BLOCK_ROWS];
+    private int positionRows;
+
+    private final int[] games = new int[AnalysisFormat.BLOCK_ROWS];
+    private final int[] moveCounts = new int[AnalysisFormat.BLOCK_ROWS];
+    private final byte[] outcomes = new byte[AnalysisFormat.BLOCK_ROWS];
+    private final float[] whiteAccuracy = new float[AnalysisFormat.BLOCK_ROWS];
+    private final float[] blackAccuracy = new float[AnalysisFormat.BLOCK_ROWS];
+    private final short[] whiteBlunders = new short[AnalysisFormat.BLOCK_ROWS];
+    private final short[] blackBlunders = new short[AnalysisFormat.BLOCK_ROWS];
+    private int gameRows;
+
+    /**
+     * Создает писателя и записывает заголовок файла.
+     *
+     * @param out Поток вывода. Буферизация потока - забота вызывающего кода.
+     */
+    public AnalysisWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(AnalysisFormat.MAGIC);
+        this.out.write(AnalysisFormat.VERSION);
+    }
+
+    /**
+     * Добавляет строку блока позиций.
+     */
+    public void addPosition(int game, int ply, int side, int playedMove, int bestMove, int score, int loss,
+                            int flags) throws IOException {
+        int row = positionRows++;
+        positionGames[row] = game;
+        plies[row] = ply;
+        sides[row] = (byte) side;
+        playedMoves[row] = (short) playedMove;
+        bestMoves[row] = (short) bestMove;
+        scores[row] = score;
+        losses[row] = loss;
+        this.flags[row] = (byte) flags;
+        if (positionRows == AnalysisFormat.BLOCK_ROWS) {
+            writePositions();
+        }
+    }
+
+    /**
+     * Добавляет строку блока партий.
+     */
+    public void addGame(int game, int moveCount, int outcome, float whiteAccuracy, float blackAccuracy,
+                        int whiteBlunders, int blackBlunders) throws IOException {
+        int row = gameRows++;
+        games[row] = game;
+        moveCounts[row] = moveCount;
+        outcomes[row] = (byte) outcome;
+        this.whiteAccuracy[row] = whiteAccuracy;
+        this.blackAccuracy[row] = blackAccuracy;
+        this.whiteBlunders[row] = (short) Math.min(whiteBlunders, Short.MAX_VALUE);
+        this.blackBlunders[row] = (short) Math.min(blackBlunders, Short.MAX_VALUE);
+        if (gameRows == AnalysisFormat.BLOCK_ROWS) {
+            writeGames();
+        }
+    }
+
+    /**
+     * Записывает накопленные строки и сбрасывает поток.
+     */
+    public void flush() throws IOException {
+        writePositions();
+        writeGames();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void writePositions() throws IOException {
+        int rows = positionRows;
+        if (rows == 0) {
+            return;
+        }
+
+        out.write(AnalysisFormat.BLOCK_POSITIONS);
+        GameRecordFormat.writeVarint(out, rows);
+        writeInts(positionGames, rows);
+        writeInts(plies, rows);
+        out.write(sides, 0, rows);
+        writeShorts(playedMoves, rows);
+        writeShorts(bestMoves, rows);
+        writeInts(scores, rows);
+        writeInts(losses, rows);
+        out.write(flags, 0, rows);
+        positionRows = 0;
+    }
+
+    private void writeGames() throws IOException {
+        int rows = gameRows;
+        if (rows == 0) {
+            return;
+        }
+
+        out.write(AnalysisFormat.BLOCK_GAMES);
+        GameRecordFormat.writeVarint(out, rows);
+        writeInts(games, rows);
+        writeInts(moveCounts, rows);
+        out.write(outcomes, 0, rows);
+        writeFloats(whiteAccuracy, rows);
+        writeFloats(blackAccuracy, rows);
+        writeShorts(whiteBlunders, rows);
+        writeShorts(blackBlunders, rows);
+        gameRows = 0;
+    }
+
+    private void writeInts(int[] column, int rows) throws IOException {
+        for (int i = 0; i < rows; i++) {
+            out.writeInt(column[i]);
+        }
+    }
+
+    private void writeShorts(short[] column, int rows) throws IOException {
+        for (int i = 0; i < rows; i++) {
+            out.writeShort(column[i]);
+        }
+    }
+
+    private void writeFloats(float[] column, int rows) throws IOException {
+        for (int i = 0; i < rows; i++) {
+            out.writeFloat(column[i]);
+        }
+    }
+}
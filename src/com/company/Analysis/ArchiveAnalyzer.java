@@ -0,0 +1,408 @@
+package com.company.Analysis;
+
+import com.company.Engine.AlphaBetaSearch;
+import com.company.Engine.SearchResult;
+import com.company.Engine.TranspositionTable;
+import com.company.Game.GameVariant;
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.WinCheckResponse;
+import com.company.Log.EventLog;
+import com.company.Log.Level;
+import com.company.Metrics.Metrics;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+import com.company.Record.GameRecordFormat;
+import com.company.Record.GameRecordReader;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетный анализ архива партий: оценка каждой позиции поиском фиксированной глубины, поиск грубых
+ * ошибок и точность игры каждой стороны.
+ *
+ * Конвейер из трех ступеней соединен ограниченными очередями: поток чтения разбирает записи
+ * {@link GameRecordReader} в задачи, потоки анализа воспроизводят партии по правилам
+ * ({@link UgolkiPathChecker}) на своих копиях игры и оценивают позиции {@link AlphaBetaSearch}, а
+ * вызывающий поток записывает результаты в колоночный файл {@link AnalysisWriter}. Задачи берутся из
+ * пула фиксированного размера и возвращаются в него после записи, поэтому объем памяти не зависит от
+ * размера архива: чтение останавливается, пока анализ и запись не освободят задачу.
+ *
+ * Потеря оценки хода - разница между оценкой позиции перед ходом и оценкой позиции после хода с точки
+ * зрения ходившей стороны, поэтому каждая позиция партии оценивается одним поиском. Ход с потерей не
+ * меньше порога считается грубой ошибкой. Точность стороны - средняя доля сохраненной оценки по ее
+ * ходам: ход без потери дает 100%, грубая ошибка - 0%, промежуточные потери - линейно между ними.
+ *
+ * Таблица транспозиций очищается перед каждой партией, поэтому результаты анализа партии не зависят
+ * от того, какой поток и после какой партии ее анализировал.
+ *
+ * Использование: {@code ArchiveAnalyzer <архив> <файл результатов> [--depth=<глубина>]
+ * [--threads=<потоки>] [--blunder=<порог>]}.
+ */
+public class ArchiveAnalyzer {
+    public static final int DEFAULT_DEPTH = 3;
+    /**
+     * Порог грубой ошибки по умолчанию: потеря десяти клеток продвижения к цели
+     * (см. {@link com.company.Game.UgolkiEvaluator#DISTANCE_WEIGHT}).
+     */
+    public static final int DEFAULT_BLUNDER_LOSS = 20;
+    public static final int HASH_SIZE_MB = 4;
+    public static final String DEPTH_OPTION = "--depth=";
+    public static final String THREADS_OPTION = "--threads=";
+    public static final String BLUNDER_OPTION = "--blunder=";
+    private static final long NO_TIME_LIMIT = TimeUnit.DAYS.toMillis(1);
+    private static final int TASKS_PER_THREAD = 2;
+    private static final long REPORT_INTERVAL_MILLIS = 10_000;
+    private static final AnalysisTask END = new AnalysisTask();
+
+    private final int depth;
+    private final int threads;
+    private final int blunderLoss;
+    private final EventLog log = EventLog.getDefault();
+    // Суммы по сторонам для записываемой партии, индекс - Figure.Color.ordinal()
+    private final int[] lossSums = new int[Figure.Color.values().length];
+    private final int[] moveCounts = new int[Figure.Color.values().length];
+    private final int[] blunders = new int[Figure.Color.values().length];
+    private long games;
+    private long invalidGames;
+    private long positions;
+    private long nodes;
+    private long elapsedMillis;
+
+    /**
+     * @param depth       Глубина поиска для каждой позиции.
+     * @param threads     Количество потоков анализа.
+     * @param blunderLoss Потеря оценки, начиная с которой ход считается грубой ошибкой.
+     * @throws IllegalArgumentException Если параметры не положительны.
+     */
+    public ArchiveAnalyzer(int depth, int threads, int blunderLoss) throws IllegalArgumentException {
+        if (depth < 1 || threads < 1 || blunderLoss < 1) {
+            throw new IllegalArgumentException("Глубина, количество потоков и порог ошибки должны быть положительными.");
+        }
+        this.depth = depth;
+        this.threads = threads;
+        this.blunderLoss = blunderLoss;
+    }
+
+    /**
+     * Анализирует все партии архива и записывает результаты. Поток записи - вызывающий поток.
+     *
+     * @param reader Читатель архива
+     * @param writer Писатель результатов. Не закрывается.
+     * @throws IOException Если архив поврежден или запись не удалась. Ошибка разбора записи, которую
+     *                     читатель архива выбросил как непроверяемое исключение, передается как есть.
+     */
+    public void run(GameRecordReader reader, AnalysisWriter writer) throws IOException, InterruptedException {
+        int taskCount = threads * TASKS_PER_THREAD;
+        BlockingQueue<AnalysisTask> free = new ArrayBlockingQueue<AnalysisTask>(taskCount);
+        BlockingQueue<AnalysisTask> pending = new ArrayBlockingQueue<AnalysisTask>(taskCount + threads);
+        BlockingQueue<AnalysisTask> done = new ArrayBlockingQueue<AnalysisTask>(taskCount + threads);
+        for (int i = 0; i < taskCount; i++) {
+            free.add(new AnalysisTask());
+        }
+
+        // Ошибка потока чтения: после нее поток завершает конвейер, а run() передает ее вызывающему коду,
+        // чтобы файл результатов не оказался молча обрезанным.
+        Exception[] readError = new Exception[1];
+        Thread readerThread = new Thread(() -> {
+            try {
+                while (reader.next()) {
+                    AnalysisTask task = free.take();
+                    task.load(reader);
+                    pending.put(task);
+                }
+            } catch (IOException | RuntimeException e) {
+                readError[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                for (int i = 0; i < threads; i++) {
+                    pending.add(END);
+                }
+            }
+        }, "analysis-reader");
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Worker(pending, done), "analysis-" + i);
+        }
+
+        long start = System.currentTimeMillis();
+        long nextReport = start + REPORT_INTERVAL_MILLIS;
+        readerThread.start();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        try {
+            int finished = 0;
+            while (finished < threads) {
+                AnalysisTask task = done.take();
+                if (task == END) {
+                    finished++;
+                    continue;
+                }
+
+                write(task, writer);
+                free.put(task);
+
+                long now = System.currentTimeMillis();
+                if (now >= nextReport) {
+                    nextReport = now + REPORT_INTERVAL_MILLIS;
+                    log.log(Level.INFO, "analysis", games + " партий", "positionsPerSecond",
+                            positions * 1000 / Math.max(1, now - start));
+                }
+            }
+        } finally {
+            readerThread.interrupt();
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+            elapsedMillis = System.currentTimeMillis() - start;
+        }
+        readerThread.join();
+        writer.flush();
+
+        if (readError[0] instanceof IOException) {
+            throw (IOException) readError[0];
+        }
+        if (readError[0] != null) {
+            throw (RuntimeException) readError[0];
+        }
+    }
+
+    private void write(AnalysisTask task, AnalysisWriter writer) throws IOException {
+        if (task.error != null) {
+            invalidGames++;
+            log.log(Level.WARN, "analysis", "Партия " + task.index + " пропущена: " + task.error);
+            return;
+        }
+
+        Arrays.fill(lossSums, 0);
+        Arrays.fill(moveCounts, 0);
+        Arrays.fill(blunders, 0);
+        for (int ply = 0; ply < task.moveCount; ply++) {
+            int side = task.sides[ply];
+            int loss = task.losses[ply];
+            boolean blunder = loss >= blunderLoss;
+            int flags = (task.moves[ply] == task.bestMoves[ply] ? AnalysisFormat.FLAG_BEST : 0)
+                    | (blunder ? AnalysisFormat.FLAG_BLUNDER : 0);
+            writer.addPosition((int) task.index, ply, side, task.moves[ply], task.bestMoves[ply],
+                    task.scores[ply], loss, flags);
+
+            lossSums[side] += Math.min(loss, blunderLoss);
+            moveCounts[side]++;
+            if (blunder) {
+                blunders[side]++;
+            }
+        }
+
+        int white = Figure.Color.WHITE.ordinal();
+        int black = Figure.Color.BLACK.ordinal();
+        int winnerCode = task.winner == null ? 0 : task.winner.ordinal() + 1;
+        writer.addGame((int) task.index, task.moveCount,
+                task.status.ordinal() | winnerCode << GameRecordFormat.WINNER_SHIFT,
+                accuracy(lossSums[white], moveCounts[white]), accuracy(lossSums[black], moveCounts[black]),
+                blunders[white], blunders[black]);
+
+        games++;
+        positions += task.positions;
+        nodes += task.nodes;
+    }
+
+    private float accuracy(int lossSum, int moveCount) {
+        if (moveCount == 0) {
+            return 100;
+        }
+        return (float) (100.0 * (1 - (double) lossSum / ((long) moveCount * blunderLoss)));
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getInvalidGames() {
+        return invalidGames;
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getPositionsPerSecond() {
+        return positions * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * Поток анализа. Для каждого варианта игры хранит свой поиск, поэтому партии одного варианта
+     * анализируются без создания объектов игры.
+     */
+    private class Worker implements Runnable {
+        private final BlockingQueue<AnalysisTask> pending;
+        private final BlockingQueue<AnalysisTask> done;
+        private final Map<GameVariant, Context> contexts = new HashMap<GameVariant, Context>();
+
+        Worker(BlockingQueue<AnalysisTask> pending, BlockingQueue<AnalysisTask> done) {
+            this.pending = pending;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    AnalysisTask task = pending.take();
+                    if (task == END) {
+                        done.put(END);
+                        return;
+                    }
+
+                    try {
+                        analyze(task);
+                    } catch (RuntimeException e) {
+                        task.error = e.toString();
+                    }
+                    done.put(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void analyze(AnalysisTask task) {
+            GameVariant variant = new GameVariant(task.width, task.height, task.campWidth, task.campHeight);
+            Context context = contexts.computeIfAbsent(variant, Context::new);
+            UgolkiGame game = context.search.getGame();
+            Board board = game.getBoard();
+            int size = board.getBitBoard().getSize();
+
+            game.setStartPosition(task.customStart ? task.startPosition : null, task.firstToMove);
+            game.startGame();
+            context.table.clear();
+
+            for (int ply = 0; ; ply++) {
+                if (isOver(game)) {
+                    if (ply < task.moveCount) {
+                        task.error = "ход " + (ply + 1) + " после окончания партии";
+                    }
+                    return;
+                }
+
+                context.table.newSearch();
+                SearchResult result = context.search.search(NO_TIME_LIMIT, depth);
+                task.scores[ply] = result.getScore();
+                task.bestMoves[ply] = result.getBestMove();
+                task.nodes += result.getNodes();
+                task.positions++;
+                if (ply > 0) {
+                    // Оценка после хода с точки зрения ходившей стороны - оценка противника с обратным знаком.
+                    task.losses[ply - 1] = Math.max(0, task.scores[ply - 1] + result.getScore());
+                }
+                if (ply == task.moveCount) {
+                    return;
+                }
+
+                int move = task.moves[ply];
+                int from = Move.from(move);
+                int to = Move.to(move);
+                if (from >= size || to >= size) {
+                    task.error = "ход " + (ply + 1) + " за пределами доски";
+                    return;
+                }
+                try {
+                    context.pathChecker.checkMovePossibility(game.getActivePlayer(), board.getCell(from), board.getCell(to));
+                } catch (IllegalArgumentException e) {
+                    task.error = "недопустимый ход " + (ply + 1) + ": " + e.getMessage();
+                    return;
+                }
+
+                Figure.Color side = game.getActiveColor();
+                task.sides[ply] = (byte) side.ordinal();
+                game.makeMove(move);
+                if (isOver(game)) {
+                    int value = game.getCurrentStatus() == WinCheckResponse.Status.DEAD_HEAT ? 0
+                            : game.getWinnerColor() == side ? AlphaBetaSearch.WIN_SCORE - 1
+                            : -(AlphaBetaSearch.WIN_SCORE - 1);
+                    task.losses[ply] = Math.max(0, task.scores[ply] - value);
+                }
+            }
+        }
+
+        private boolean isOver(UgolkiGame game) {
+            WinCheckResponse.Status status = game.getCurrentStatus();
+            return status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT;
+        }
+    }
+
+    /**
+     * Поиск и проверка ходов для одного варианта игры.
+     */
+    private static class Context {
+        private final TranspositionTable table = new TranspositionTable(HASH_SIZE_MB);
+        private final AlphaBetaSearch search;
+        private final UgolkiPathChecker pathChecker;
+
+        Context(GameVariant variant) {
+            UgolkiGame game = variant.createGame(new Player("White"), new Player("Black"));
+            game.startGame();
+            this.search = new AlphaBetaSearch(game, table);
+            this.pathChecker = new UgolkiPathChecker(search.getGame().getBoard());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Использование: ArchiveAnalyzer <архив> <файл результатов> [--depth=<глубина>] "
+                    + "[--threads=<потоки>] [--blunder=<порог>]");
+            return;
+        }
+
+        Metrics.startServerIfConfigured();
+        int depth = DEFAULT_DEPTH;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int blunderLoss = DEFAULT_BLUNDER_LOSS;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith(DEPTH_OPTION)) {
+                depth = Integer.parseInt(args[i].substring(DEPTH_OPTION.length()));
+            } else if (args[i].startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(args[i].substring(THREADS_OPTION.length()));
+            } else if (args[i].startsWith(BLUNDER_OPTION)) {
+                blunderLoss = Integer.parseInt(args[i].substring(BLUNDER_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+
+        ArchiveAnalyzer analyzer = new ArchiveAnalyzer(depth, threads, blunderLoss);
+        try (GameRecordReader reader = new GameRecordReader(new FileInputStream(args[0]));
+             AnalysisWriter writer = new AnalysisWriter(
+                     new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16))) {
+            analyzer.run(reader, writer);
+        }
+
+        System.out.printf("%d games, %d positions in %d ms, %d positions/s, %d nodes/s, depth %d, %d threads"
+                        + ", %d invalid games%n",
+                analyzer.getGames(), analyzer.getPositions(), analyzer.getElapsedMillis(),
+                analyzer.getPositionsPerSecond(), analyzer.getNodes() * 1000 / Math.max(1, analyzer.getElapsedMillis()),
+                depth, threads, analyzer.getInvalidGames());
+    }
+}
@@ -1,5 +1,6 @@
 package com.company;
 
+import com.company.Engine.ComputerPlayer;
 import com.company.Game.InterfaceDrawer;
 import com.company.Game.UgolkiGame;
 import com.company.Game.WinCheckResponse;
@@ -43,6 +44,14 @@ public class ConsoleController {
                 gameStatus.getStatus() == WinCheckResponse.Status.IN_PROGRESS) {
             interfaceDrawer.draw(game);
 
+            if (game.getActivePlayer() instanceof ComputerPlayer) {
+                if (!moveComputer((ComputerPlayer) game.getActivePlayer())) {
+                    return;
+                }
+                gameStatus = game.getStatus();
+                continue;
+            }
+
             System.out.println("Введите ход, например, B3 B4");
             String[] command = scanner.nextLine().toUpperCase().split(" ");
 
@@ -56,6 +65,25 @@ public class ConsoleController {
         proclaimResults(gameStatus);
     }
 
+    /**
+     * Запрашивает ход у компьютерного игрока и выполняет его.
+     *
+     * @param player Компьютерный игрок, чей сейчас ход.
+     * @return {@code false}, если игрок не смог сделать допустимый ход и игру нужно прервать.
+     */
+    private boolean moveComputer(ComputerPlayer player) {
+        int move = player.selectMove(game);
+        System.out.println(player.getName() + ": " + game.moveToString(move) + " (" + player.getLastReport() + ")");
+
+        try {
+            game.move(move);
+            return true;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Исключение: " + e.getMessage());
+            return false;
+        }
+    }
+
     private void proclaimResults(WinCheckResponse gameStatus) {
         if (gameStatus.getStatus() == WinCheckResponse.Status.FINISHED) {
             interfaceDrawer.proclaimWinner(gameStatus.getWinner());
@@ -0,0 +1,70 @@
+package com.company.Engine;
+
+import com.company.Game.UgolkiGame;
+
+/**
+ * Компьютерный игрок, выбирающий ход поиском с альфа-бета отсечением в пределах бюджета времени.
+ */
+public class AlphaBetaPlayer extends ComputerPlayer {
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    public static final int DEFAULT_MAX_DEPTH = 32;
+
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+    private final LazySmpSearch search;
+    private SearchResult lastResult;
+
+    public AlphaBetaPlayer(String name) {
+        this(name, DEFAULT_TIME_BUDGET_MILLIS, DEFAULT_MAX_DEPTH, TranspositionTable.DEFAULT_SIZE_MB, 1);
+    }
+
+    /**
+     * Создает компьютерного игрока.
+     *
+     * @param name             Имя игрока.
+     * @param timeBudgetMillis Бюджет времени на ход в миллисекундах.
+     * @param maxDepth         Максимальная глубина поиска.
+     * @param hashSizeMb       Размер таблицы транспозиций в мегабайтах.
+     * @param threads          Количество потоков поиска (см. {@link LazySmpSearch}).
+     */
+    public AlphaBetaPlayer(String name, long timeBudgetMillis, int maxDepth, int hashSizeMb, int threads) {
+        super(name);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDepth = maxDepth;
+        this.search = new LazySmpSearch(threads, new TranspositionTable(hashSizeMb));
+    }
+
+    @Override
+    protected int searchMove(UgolkiGame game) {
+        lastResult = search.search(game, timeBudgetMillis, maxDepth);
+        return lastResult.getBestMove();
+    }
+
+    /**
+     * @return Результат последнего поиска или {@code null}, если игрок еще не ходил.
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    public TranspositionTable getTable() {
+        return search.getTable();
+    }
+
+    /**
+     * @param tablebase Таблица эндшпиля для оценки листьев поиска или {@code null}.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        search.setTablebase(tablebase);
+    }
+
+    @Override
+    public void shutdown() {
+        search.shutdown();
+    }
+
+    @Override
+    protected String getSearchReport() {
+        return lastResult == null ? "" : lastResult + ", threads " + search.getThreads() + ", " + search.getTable();
+    }
+}
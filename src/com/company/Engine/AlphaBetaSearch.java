@@ -0,0 +1,352 @@
+package com.company.Engine;
+
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.WinCheckResponse;
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Поиск хода методом negamax с альфа-бета отсечением и итеративным углублением.
+ *
+ * Поиск работает на собственной копии игры, перебирая ходы через {@link UgolkiGame#makeMove(int)} и
+ * {@link UgolkiGame#unmakeMove(int)}, оценивает листья за O(1) с помощью
+ * {@link UgolkiGame#evaluation(Figure.Color)} и прекращается по истечении бюджета времени.
+ * Результатом считается лучший ход последней полностью завершенной итерации. Результаты перебора
+ * сохраняются в таблице транспозиций, поэтому повторяющиеся позиции не перебираются заново.
+ *
+ * Несколько экземпляров с разными номерами потоков могут искать одну позицию параллельно, разделяя
+ * таблицу транспозиций (см. {@link LazySmpSearch}). Вспомогательные потоки перебирают ходы в другом
+ * порядке, чтобы заполнять таблицу результатами из разных частей дерева.
+ *
+ * Если задана таблица эндшпиля {@link Tablebase}, обе стороны вошли в нее и ни одна фигура не стоит в
+ * целевой зоне противника, лист оценивается исходом гонки по числу ходов до финиша вместо
+ * эвристической оценки.
+ */
+public class AlphaBetaSearch {
+    /**
+     * Оценка выигранной позиции. Выигрыш на меньшей глубине оценивается выше.
+     */
+    public static final int WIN_SCORE = 1_000_000;
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int MAX_PLY = 64;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final UgolkiGame game;
+    private final TranspositionTable table;
+    private final int threadIndex;
+    private final AtomicBoolean abort;
+    private final int[][] moves;
+    private long nodes;
+    // Статистика таблицы транспозиций этого потока, общая таблица счетчиков не ведет
+    private long tableProbes;
+    private long tableHits;
+    private long tableStores;
+    private long deadline;
+    private boolean canStop;
+    private boolean stopped;
+    private Tablebase tablebase;
+    // Целевые зоны сторон по порядковому номеру цвета, если задана таблица эндшпиля.
+    private final long[] targets = new long[Figure.Color.values().length];
+
+    /**
+     * Создает поиск для текущей позиции игры.
+     *
+     * @param game  Игра, позиция которой копируется для перебора.
+     * @param table Таблица транспозиций, которая может переиспользоваться между ходами.
+     */
+    public AlphaBetaSearch(UgolkiGame game, TranspositionTable table) {
+        this(game, table, 0, new AtomicBoolean());
+    }
+
+    /**
+     * Создает один из потоков параллельного поиска.
+     *
+     * @param game        Игра, позиция которой копируется для перебора.
+     * @param table       Таблица транспозиций, общая для всех потоков.
+     * @param threadIndex Номер потока; поток 0 перебирает ходы в обычном порядке.
+     * @param abort       Общий флаг досрочной остановки всех потоков.
+     */
+    public AlphaBetaSearch(UgolkiGame game, TranspositionTable table, int threadIndex, AtomicBoolean abort) {
+        this.game = new UgolkiGame(game);
+        this.table = table;
+        this.threadIndex = threadIndex;
+        this.abort = abort;
+        this.moves = new int[MAX_PLY][game.getMaxMoves()];
+    }
+
+    /**
+     * Ищет лучший ход активного игрока. Поколение таблицы транспозиций перед поиском обновляет вызывающий
+     * код (см. {@link TranspositionTable#newSearch()}).
+     *
+     * @param timeBudgetMillis Бюджет времени на ход в миллисекундах.
+     * @param maxDepth         Максимальная глубина итеративного углубления.
+     * @return Результат поиска. Если ходов нет, лучший ход равен {@link Move#NONE}.
+     */
+    public SearchResult search(long timeBudgetMillis, int maxDepth) {
+        long start = System.currentTimeMillis();
+        deadline = start + timeBudgetMillis;
+        nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        tableStores = 0;
+        canStop = false;
+        stopped = false;
+
+        int[] rootMoves = moves[0];
+        int count = game.generateMoves(rootMoves, 0);
+        int bestMove = count > 0 ? rootMoves[0] : Move.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        // Половина вспомогательных потоков начинает со второй итерации, чтобы потоки не шли в ногу.
+        int firstDepth = 1 + (threadIndex & 1);
+        for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY - 1) && count > 0; depth++) {
+            int alpha = -INFINITY;
+            int iterationMove = Move.NONE;
+
+            for (int i = 0; i < count; i++) {
+                int score = scoreMove(rootMoves[i], depth, alpha, INFINITY, 0);
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = rootMoves[i];
+                }
+            }
+
+            if (stopped) {
+                break;
+            }
+
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+            canStop = true;
+            moveToFront(rootMoves, count, bestMove);
+
+            if (Math.abs(bestScore) >= WIN_SCORE - MAX_PLY || abort.get()
+                    || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+        }
+
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.currentTimeMillis() - start,
+                tableProbes, tableHits, tableStores);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && canStop
+                && (abort.get() || System.currentTimeMillis() >= deadline)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        // Последний ход черных всегда завершает игру, поэтому его перебираем и на нулевой глубине.
+        Figure.Color side = game.getActiveColor();
+        boolean lastChance = game.getWinCriteria().isFightForDeadHeat();
+        if ((depth <= 0 && !lastChance) || ply >= MAX_PLY - 1) {
+            return evaluate(side);
+        }
+
+        depth = Math.max(depth, 0);
+        long key = game.getPositionKey();
+        long entry = table.probe(key);
+        tableProbes++;
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            tableHits++;
+            hashMove = TranspositionTable.moveOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int score = fromTable(TranspositionTable.scoreOf(entry), ply);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] buffer = moves[ply];
+        int count = game.generateMoves(buffer, 0);
+        if (count == 0) {
+            return game.evaluation(side);
+        }
+        if (threadIndex > 0) {
+            rotate(buffer, count, threadIndex + ply);
+        }
+        if (hashMove != Move.NONE) {
+            moveToFront(buffer, count, hashMove);
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int score = scoreMove(buffer[i], depth, alpha, beta, ply);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = buffer[i];
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.BOUND_UPPER
+                : best >= beta ? TranspositionTable.BOUND_LOWER : TranspositionTable.BOUND_EXACT;
+        if (table.store(key, bestMove, toTable(best, ply), depth, bound)) {
+            tableStores++;
+        }
+
+        return best;
+    }
+
+    /**
+     * Оценки выигрыша хранятся в таблице относительно текущего узла, а не корня поиска.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -(WIN_SCORE - MAX_PLY)) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -(WIN_SCORE - MAX_PLY)) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Выполняет ход на копии игры, оценивает получившуюся позицию и отменяет ход.
+     *
+     * @return Оценка хода с точки зрения стороны, делающей ход.
+     */
+    private int scoreMove(int move, int depth, int alpha, int beta, int ply) {
+        Figure.Color side = game.getActiveColor();
+        int score;
+
+        game.makeMove(move);
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        if (status == WinCheckResponse.Status.FINISHED) {
+            score = game.getWinnerColor() == side ? WIN_SCORE - ply - 1 : -(WIN_SCORE - ply - 1);
+        } else if (status == WinCheckResponse.Status.DEAD_HEAT) {
+            score = 0;
+        } else {
+            score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+        }
+        game.unmakeMove(move);
+
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Копия игры, на которой выполняется перебор. Между поисками ее можно вести по ходам партии,
+     * например, при анализе архива, не создавая новый поиск для каждой позиции.
+     *
+     * @return Игра поиска
+     */
+    public UgolkiGame getGame() {
+        return game;
+    }
+
+    /**
+     * Задает таблицу эндшпиля для оценки листьев. Таблица, построенная для другой доски или других
+     * целевых зон, не используется. Таблицы строятся только для досок до 64 клеток.
+     *
+     * @param tablebase Таблица эндшпиля или {@code null}.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        boolean matches = tablebase != null && bitBoard.getWordCount() == 1 && tablebase.matches(bitBoard.getWidth(), bitBoard.getHeight(),
+                game.getWinCriteria().getWinMask(bitBoard, Figure.Color.WHITE),
+                game.getWinCriteria().getWinMask(bitBoard, Figure.Color.BLACK));
+        this.tablebase = matches ? tablebase : null;
+        if (matches) {
+            for (Figure.Color color : Figure.Color.values()) {
+                targets[color.ordinal()] = game.getWinCriteria().getWinMask(bitBoard, color);
+            }
+        }
+    }
+
+    /**
+     * Оценка листа: исход гонки по таблице эндшпиля, если обе стороны в нее вошли и не мешают друг
+     * другу, иначе {@link UgolkiGame#evaluation(Figure.Color)}.
+     *
+     * Таблица не учитывает фигуры противника. Фигура, которая еще стоит в своем лагере, то есть в целевой
+     * зоне другой стороны, не дает эту зону заполнить, поэтому такие позиции оцениваются эвристикой.
+     */
+    private int evaluate(Figure.Color side) {
+        if (tablebase != null) {
+            BitBoard bitBoard = game.getBoard().getBitBoard();
+            Figure.Color opponent = side == Figure.Color.WHITE ? Figure.Color.BLACK : Figure.Color.WHITE;
+            long ownMask = bitBoard.getMask(side);
+            long opponentMask = bitBoard.getMask(opponent);
+            if ((opponentMask & targets[side.ordinal()]) == 0 && (ownMask & targets[opponent.ordinal()]) == 0) {
+                int own = tablebase.probe(ownMask, side);
+                if (own != Tablebase.UNKNOWN) {
+                    int other = tablebase.probe(opponentMask, opponent);
+                    if (other != Tablebase.UNKNOWN) {
+                        return Tablebase.raceScore(side, own, other);
+                    }
+                }
+            }
+        }
+        return game.evaluation(side);
+    }
+
+    /**
+     * Циклически сдвигает ходы буфера на {@code shift} позиций без выделения памяти.
+     */
+    private static void rotate(int[] moves, int count, int shift) {
+        shift %= count;
+        if (shift == 0) {
+            return;
+        }
+        reverse(moves, 0, count - 1);
+        reverse(moves, 0, shift - 1);
+        reverse(moves, shift, count - 1);
+    }
+
+    private static void reverse(int[] moves, int from, int to) {
+        while (from < to) {
+            int move = moves[from];
+            moves[from++] = moves[to];
+            moves[to--] = move;
+        }
+    }
+
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.company.Engine;
+
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiMoveGenerator;
+import com.company.Model.Player;
+
+/**
+ * Игрок, ходы которого выбирает программа. Контроллеры передают ему ход вместо чтения ввода.
+ *
+ * Если игроку задана книга дебютов, ход сначала ищется в ней и только при промахе выбирается поиском
+ * (см. {@link #searchMove(UgolkiGame)}).
+ */
+public abstract class ComputerPlayer extends Player {
+
+    private int[] legalMoves = new int[UgolkiMoveGenerator.MAX_MOVES];
+    private OpeningBook openingBook;
+    private boolean lastMoveFromBook;
+
+    public ComputerPlayer(String name) {
+        super(name);
+    }
+
+    /**
+     * Выбирает ход активного игрока в текущей позиции игры: из книги дебютов, если позиция в ней есть,
+     * иначе поиском. Состояние игры не изменяется.
+     *
+     * @param game Игра, в которой нужно сделать ход.
+     * @return Упакованный ход (см. {@link com.company.Game.Move}).
+     */
+    public int selectMove(UgolkiGame game) {
+        int move = probeBook(game);
+        lastMoveFromBook = move != Move.NONE;
+        return lastMoveFromBook ? move : searchMove(game);
+    }
+
+    /**
+     * Выбирает ход поиском.
+     *
+     * @param game Игра, в которой нужно сделать ход. Состояние игры не изменяется.
+     * @return Упакованный ход.
+     */
+    protected abstract int searchMove(UgolkiGame game);
+
+    /**
+     * Ход из книги дебютов, если он допустим в текущей позиции. Проверка допустимости защищает от
+     * совпадения ключей разных позиций.
+     */
+    private int probeBook(UgolkiGame game) {
+        if (openingBook == null) {
+            return Move.NONE;
+        }
+
+        int move = openingBook.probe(game.getPositionKey());
+        if (move == Move.NONE) {
+            return Move.NONE;
+        }
+
+        if (legalMoves.length < game.getMaxMoves()) {
+            legalMoves = new int[game.getMaxMoves()];
+        }
+        int count = game.generateMoves(legalMoves, 0);
+        for (int i = 0; i < count; i++) {
+            if (legalMoves[i] == move) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * @param openingBook Книга дебютов или {@code null}, чтобы всегда выбирать ход поиском.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * Краткий отчет о последнем выборе хода для вывода в интерфейсе.
+     *
+     * @return Статистика последнего поиска, пометка о ходе из книги или пустая строка.
+     */
+    public String getLastReport() {
+        return lastMoveFromBook ? "opening book" : getSearchReport();
+    }
+
+    /**
+     * Останавливает потоки поиска игрока, если они есть. После вызова игрок не должен выбирать ходы.
+     */
+    public void shutdown() {
+    }
+
+    /**
+     * @return Статистика последнего поиска или пустая строка.
+     */
+    protected String getSearchReport() {
+        return "";
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.Engine;
+
+import com.company.Game.UgolkiGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Параллельный поиск по схеме Lazy SMP.
+ *
+ * Все потоки выполняют один и тот же поиск с итеративным углублением по своей копии игры и обмениваются
+ * результатами только через общую таблицу транспозиций без блокировок. Вспомогательные потоки
+ * перебирают ходы в другом порядке и заполняют таблицу, ускоряя основной поток. Результатом считается
+ * ход основного потока; когда он завершается, остальные потоки останавливаются.
+ */
+public class LazySmpSearch {
+
+    private final int threads;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+    private Tablebase tablebase;
+
+    /**
+     * Создает параллельный поиск.
+     *
+     * @param threads Количество потоков, включая вызывающий.
+     * @param table   Таблица транспозиций, общая для всех потоков.
+     */
+    public LazySmpSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + threads);
+        }
+
+        this.threads = threads;
+        this.table = table;
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * @param tablebase Таблица эндшпиля для оценки листьев всеми потоками или {@code null}.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Ищет лучший ход активного игрока всеми потоками.
+     *
+     * @param game             Игра, в позиции которой нужно найти ход. Не изменяется.
+     * @param timeBudgetMillis Бюджет времени на ход в миллисекундах.
+     * @param maxDepth         Максимальная глубина итеративного углубления.
+     * @return Результат основного потока с суммарным количеством узлов всех потоков.
+     */
+    public SearchResult search(UgolkiGame game, long timeBudgetMillis, int maxDepth) {
+        long start = System.currentTimeMillis();
+        AtomicBoolean abort = new AtomicBoolean();
+        table.newSearch();
+
+        AlphaBetaSearch[] searches = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch(game, table, i, abort);
+            searches[i].setTablebase(tablebase);
+        }
+
+        List<Future<SearchResult>> futures = new ArrayList<Future<SearchResult>>();
+        for (int i = 1; i < threads; i++) {
+            AlphaBetaSearch helper = searches[i];
+            futures.add(helpers.submit(() -> helper.search(timeBudgetMillis, maxDepth)));
+        }
+
+        SearchResult main = searches[0].search(timeBudgetMillis, maxDepth);
+        abort.set(true);
+
+        long nodes = main.getNodes();
+        long tableProbes = main.getTableProbes();
+        long tableHits = main.getTableHits();
+        long tableStores = main.getTableStores();
+        for (Future<SearchResult> future : futures) {
+            try {
+                SearchResult helper = future.get();
+                nodes += helper.getNodes();
+                tableProbes += helper.getTableProbes();
+                tableHits += helper.getTableHits();
+                tableStores += helper.getTableStores();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ошибка во вспомогательном потоке поиска", e.getCause());
+            }
+        }
+
+        return new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(), nodes,
+                System.currentTimeMillis() - start, tableProbes, tableHits, tableStores);
+    }
+
+    /**
+     * Останавливает потоки пула. После вызова поиск использовать нельзя.
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.Engine;
+
+import com.company.Game.UgolkiGame;
+
+/**
+ * Компьютерный игрок, выбирающий ход поиском Монте-Карло по дереву (см. {@link MctsSearch}).
+ * Дерево поиска сохраняется между ходами игрока.
+ */
+public class MctsPlayer extends ComputerPlayer {
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+
+    private final long timeBudgetMillis;
+    private final MctsSearch search;
+    private boolean searched;
+
+    public MctsPlayer(String name) {
+        this(name, DEFAULT_TIME_BUDGET_MILLIS, 1, MctsSearch.DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Создает компьютерного игрока.
+     *
+     * @param name             Имя игрока.
+     * @param timeBudgetMillis Бюджет времени на ход в миллисекундах.
+     * @param threads          Количество потоков для розыгрышей.
+     * @param treeSizeMb       Объем дерева поиска в мегабайтах.
+     */
+    public MctsPlayer(String name, long timeBudgetMillis, int threads, int treeSizeMb) {
+        super(name);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.search = new MctsSearch(threads, treeSizeMb);
+    }
+
+    @Override
+    protected int searchMove(UgolkiGame game) {
+        searched = true;
+        return search.search(game, timeBudgetMillis);
+    }
+
+    public MctsSearch getSearch() {
+        return search;
+    }
+
+    @Override
+    public void shutdown() {
+        search.shutdown();
+    }
+
+    @Override
+    protected String getSearchReport() {
+        return searched ? search.toString() : "";
+    }
+}
@@ -0,0 +1,410 @@
+package com.company.Engine;
+
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiMoveGenerator;
+import com.company.Game.WinCheckResponse;
+import com.company.Model.Figure;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Поиск хода методом Монте-Карло по дереву (MCTS) с выбором потомка по формуле UCT.
+ *
+ * Каждая итерация спускается по дереву {@link MctsTree}, раскрывает лист и разыгрывает из него партии.
+ * Розыгрыши одного листа выполняются параллельно на пуле fork-join, по одному на поток; у каждого
+ * потока своя копия игры и свой генератор случайных чисел. Случайная партия в уголках почти никогда не
+ * доходит до конца, поэтому розыгрыш ограничен {@link #ROLLOUT_PLIES} полуходами, а итог незавершенной
+ * партии берется из оценки позиции, переведенной в вероятность победы. Ход в розыгрыше выбирается
+ * лучшим по оценке из нескольких случайных.
+ *
+ * Дерево сохраняется между вызовами: если новая позиция есть среди двух верхних уровней дерева,
+ * поиск продолжается с ее поддерева.
+ */
+public class MctsSearch {
+    public static final int DEFAULT_SIZE_MB = 32;
+    /**
+     * Максимальная длина розыгрыша в полуходах.
+     */
+    public static final int ROLLOUT_PLIES = 48;
+    /**
+     * Количество случайных ходов, из которых в розыгрыше выбирается лучший по оценке.
+     */
+    public static final int ROLLOUT_CANDIDATES = 3;
+    /**
+     * Масштаб перевода оценки позиции в вероятность победы.
+     */
+    public static final double EVALUATION_SCALE = 20.0;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int MAX_PATH = 1024;
+    private static final long SEED = 0x5EED_CAFEL;
+
+    private final int threads;
+    private final MctsTree tree;
+    private final ForkJoinPool pool;
+    private final int[] path = new int[MAX_PATH];
+    private final int[] pathMoves = new int[MAX_PATH];
+    private int[] moves = new int[UgolkiMoveGenerator.MAX_MOVES];
+    private long playouts;
+    private long elapsedMillis;
+    private int reusedNodes;
+    private int maxDepth;
+
+    /**
+     * Создает поиск.
+     *
+     * @param threads Количество потоков для розыгрышей.
+     * @param sizeMb  Объем дерева в мегабайтах.
+     */
+    public MctsSearch(int threads, int sizeMb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + threads);
+        }
+
+        this.threads = threads;
+        this.tree = new MctsTree(sizeMb);
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Ищет лучший ход активного игрока в пределах бюджета времени.
+     *
+     * @param game             Игра, в позиции которой нужно найти ход. Не изменяется.
+     * @param timeBudgetMillis Бюджет времени на ход в миллисекундах.
+     * @return Самый посещаемый ход из корня или {@link Move#NONE}, если ходов нет.
+     */
+    public int search(UgolkiGame game, long timeBudgetMillis) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeBudgetMillis;
+        UgolkiGame treeGame = new UgolkiGame(game);
+        Rollout[] rollouts = new Rollout[threads];
+        for (int i = 0; i < threads; i++) {
+            rollouts[i] = new Rollout(new UgolkiGame(game), new SplittableRandom(SEED + i));
+        }
+        RolloutBatch batch = new RolloutBatch(rollouts);
+
+        long rootKey = game.getPositionKey();
+        reusedNodes = tree.reuse(rootKey);
+        if (reusedNodes == 0) {
+            tree.reset(rootKey);
+        }
+        playouts = 0;
+        maxDepth = 0;
+
+        do {
+            iterate(treeGame, rollouts, batch);
+        } while (System.currentTimeMillis() < deadline && tree.getChildCount(MctsTree.ROOT) > 1);
+
+        elapsedMillis = System.currentTimeMillis() - start;
+        return getBestMove();
+    }
+
+    private void iterate(UgolkiGame treeGame, Rollout[] rollouts, RolloutBatch batch) {
+        int node = MctsTree.ROOT;
+        int length = 0;
+        path[length] = node;
+
+        // Спуск по раскрытым узлам
+        while (tree.isExpanded(node) && tree.getChildCount(node) > 0 && !isGameOver(treeGame)
+                && length < MAX_PATH - 2) {
+            node = select(node);
+            treeGame.makeMove(tree.getMove(node));
+            pathMoves[length++] = tree.getMove(node);
+            path[length] = node;
+        }
+
+        // Раскрытие листа, который уже разыгрывался (корень раскрывается сразу)
+        if (!tree.isExpanded(node) && !isGameOver(treeGame)
+                && (tree.getVisits(node) > 0 || node == MctsTree.ROOT) && expand(treeGame, node)
+                && tree.getChildCount(node) > 0) {
+            node = tree.getFirstChild(node);
+            treeGame.makeMove(tree.getMove(node));
+            pathMoves[length++] = tree.getMove(node);
+            path[length] = node;
+        }
+        maxDepth = Math.max(maxDepth, length);
+
+        // Результаты считаются с точки зрения игрока, сделавшего ход в лист
+        Figure.Color mover = opposite(treeGame.getActiveColor());
+        double reward;
+        int visits;
+        if (isGameOver(treeGame)) {
+            reward = terminalReward(treeGame, mover);
+            visits = 1;
+        } else {
+            for (Rollout rollout : rollouts) {
+                rollout.prepare(pathMoves, length, mover);
+            }
+            if (pool == null) {
+                rollouts[0].compute();
+            } else {
+                batch.reinitialize();
+                pool.invoke(batch);
+            }
+
+            reward = 0;
+            for (Rollout rollout : rollouts) {
+                reward += rollout.reward;
+            }
+            visits = rollouts.length;
+        }
+        playouts += visits;
+
+        for (int i = length; i >= 0; i--) {
+            tree.update(path[i], reward, visits);
+            reward = visits - reward;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            treeGame.unmakeMove(pathMoves[i]);
+        }
+    }
+
+    /**
+     * Потомок с наибольшим значением UCT. Непосещенные потомки выбираются первыми.
+     */
+    private int select(int node) {
+        int first = tree.getFirstChild(node);
+        int count = tree.getChildCount(node);
+        double logVisits = Math.log(Math.max(1, tree.getVisits(node)));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+
+        for (int child = first; child < first + count; child++) {
+            int visits = tree.getVisits(child);
+            if (visits == 0) {
+                return child;
+            }
+
+            double value = tree.getValue(child) / visits + EXPLORATION * Math.sqrt(logVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private boolean expand(UgolkiGame treeGame, int node) {
+        if (moves.length < treeGame.getMaxMoves()) {
+            moves = new int[treeGame.getMaxMoves()];
+        }
+        int count = treeGame.generateMoves(moves, 0);
+        if (!tree.expand(node, count)) {
+            return false;
+        }
+
+        int first = tree.getFirstChild(node);
+        for (int i = 0; i < count; i++) {
+            treeGame.makeMove(moves[i]);
+            tree.initChild(first + i, moves[i], treeGame.getPositionKey());
+            treeGame.unmakeMove(moves[i]);
+        }
+        return true;
+    }
+
+    private int getBestMove() {
+        int first = tree.getFirstChild(MctsTree.ROOT);
+        int count = tree.getChildCount(MctsTree.ROOT);
+        int best = Move.NONE;
+        int bestVisits = -1;
+
+        for (int child = first; child < first + count; child++) {
+            if (tree.getVisits(child) > bestVisits) {
+                bestVisits = tree.getVisits(child);
+                best = tree.getMove(child);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Доля выигрышей лучшего хода по результатам розыгрышей от 0 до 1.
+     */
+    public double getWinRate() {
+        int first = tree.getFirstChild(MctsTree.ROOT);
+        int bestVisits = 0;
+        double value = 0;
+        for (int child = first; child < first + tree.getChildCount(MctsTree.ROOT); child++) {
+            if (tree.getVisits(child) > bestVisits) {
+                bestVisits = tree.getVisits(child);
+                value = tree.getValue(child);
+            }
+        }
+        return bestVisits == 0 ? 0 : value / bestVisits;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public MctsTree getTree() {
+        return tree;
+    }
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getPlayoutsPerSecond() {
+        return playouts * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * @return Количество узлов, перенесенных из дерева предыдущего хода.
+     */
+    public int getReusedNodes() {
+        return reusedNodes;
+    }
+
+    /**
+     * @return Наибольшая глубина спуска по дереву в последнем поиске.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Останавливает потоки пула. После вызова поиск использовать нельзя.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("playouts %d, %d playouts/s, win rate %.1f%%, depth %d, tree %d nodes (reused %d), "
+                        + "%d bytes/node, threads %d",
+                playouts, getPlayoutsPerSecond(), 100 * getWinRate(), maxDepth, tree.getSize(), reusedNodes,
+                MctsTree.NODE_BYTES, threads);
+    }
+
+    private static boolean isGameOver(UgolkiGame game) {
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        return status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT;
+    }
+
+    private static double terminalReward(UgolkiGame game, Figure.Color color) {
+        if (game.getCurrentStatus() == WinCheckResponse.Status.DEAD_HEAT) {
+            return 0.5;
+        }
+        return game.getWinnerColor() == color ? 1 : 0;
+    }
+
+    private static Figure.Color opposite(Figure.Color color) {
+        return color == Figure.Color.WHITE ? Figure.Color.BLACK : Figure.Color.WHITE;
+    }
+
+    /**
+     * Запуск розыгрышей всех потоков и ожидание их завершения.
+     */
+    private static class RolloutBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Rollout[] rollouts;
+
+        RolloutBatch(Rollout[] rollouts) {
+            this.rollouts = rollouts;
+        }
+
+        @Override
+        protected void compute() {
+            for (Rollout rollout : rollouts) {
+                rollout.reinitialize();
+            }
+            ForkJoinTask.invokeAll(rollouts);
+        }
+    }
+
+    /**
+     * Один розыгрыш из листа на собственной копии игры. Задача переиспользуется между итерациями.
+     */
+    private static class Rollout extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final UgolkiGame game;
+        private final SplittableRandom random;
+        private final int[] moves;
+        private final int[] played = new int[ROLLOUT_PLIES];
+        private int[] path;
+        private int pathLength;
+        private Figure.Color color;
+        private double reward;
+
+        Rollout(UgolkiGame game, SplittableRandom random) {
+            this.game = game;
+            this.random = random;
+            this.moves = new int[game.getMaxMoves()];
+        }
+
+        void prepare(int[] path, int pathLength, Figure.Color color) {
+            this.path = path;
+            this.pathLength = pathLength;
+            this.color = color;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = 0; i < pathLength; i++) {
+                game.makeMove(path[i]);
+            }
+
+            int plies = 0;
+            while (plies < ROLLOUT_PLIES && !isGameOver(game)) {
+                int count = game.generateMoves(moves, 0);
+                if (count == 0) {
+                    break;
+                }
+                int move = chooseMove(count);
+                game.makeMove(move);
+                played[plies++] = move;
+            }
+
+            reward = isGameOver(game)
+                    ? terminalReward(game, color)
+                    : 1 / (1 + Math.exp(-game.evaluation(color) / EVALUATION_SCALE));
+
+            while (plies > 0) {
+                game.unmakeMove(played[--plies]);
+            }
+            for (int i = pathLength - 1; i >= 0; i--) {
+                game.unmakeMove(path[i]);
+            }
+        }
+
+        /**
+         * Лучший по оценке ход из нескольких случайных.
+         */
+        private int chooseMove(int count) {
+            Figure.Color side = game.getActiveColor();
+            int best = moves[random.nextInt(count)];
+            if (count == 1) {
+                return best;
+            }
+
+            game.makeMove(best);
+            int bestScore = game.evaluation(side);
+            game.unmakeMove(best);
+
+            for (int i = 1; i < ROLLOUT_CANDIDATES; i++) {
+                int move = moves[random.nextInt(count)];
+                game.makeMove(move);
+                int score = game.evaluation(side);
+                game.unmakeMove(move);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = move;
+                }
+            }
+            return best;
+        }
+    }
+}
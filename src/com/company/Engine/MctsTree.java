@@ -0,0 +1,244 @@
+package com.company.Engine;
+
+/**
+ * Дерево поиска Монте-Карло, хранящееся в параллельных массивах примитивов.
+ *
+ * Узел - это индекс в массивах, отдельных объектов на узел нет. Потомки узла занимают непрерывный
+ * блок индексов, поэтому у узла хранится только индекс первого потомка и их количество. Значение узла -
+ * сумма результатов розыгрышей с точки зрения игрока, сделавшего ход, который ведет в этот узел.
+ *
+ * При переходе к следующему ходу поддерево новой позиции переносится во второй набор массивов с
+ * перенумерацией в порядке обхода в ширину, после чего наборы меняются местами. Второй набор создается
+ * при первом переносе.
+ */
+public class MctsTree {
+    /**
+     * Размер узла в байтах: ход, первый потомок, число потомков, посещения (по 4 байта),
+     * сумма результатов и ключ позиции (по 8 байт).
+     */
+    public static final int NODE_BYTES = 4 * Integer.BYTES + Double.BYTES + Long.BYTES;
+    public static final int ROOT = 0;
+    public static final int NOT_EXPANDED = -1;
+
+    private final int capacity;
+    private Nodes nodes;
+    private Nodes spare;
+    private int size;
+
+    /**
+     * Создает дерево указанного размера.
+     *
+     * @param sizeMb Объем одного набора массивов в мегабайтах.
+     */
+    public MctsTree(int sizeMb) {
+        if (sizeMb <= 0) {
+            throw new IllegalArgumentException("Размер дерева должен быть положительным: " + sizeMb);
+        }
+
+        this.capacity = (int) Math.min((long) sizeMb * 1024 * 1024 / NODE_BYTES, Integer.MAX_VALUE - 8);
+        this.nodes = new Nodes(capacity);
+    }
+
+    /**
+     * Очищает дерево и создает корень для позиции с указанным ключом.
+     *
+     * @param rootKey Ключ позиции корня.
+     */
+    public void reset(long rootKey) {
+        size = 1;
+        nodes.init(ROOT, 0, rootKey);
+    }
+
+    /**
+     * Выделяет непрерывный блок потомков узла.
+     *
+     * @param node  Раскрываемый узел.
+     * @param count Количество потомков.
+     * @return {@code true}, если место в дереве нашлось и узел раскрыт.
+     */
+    public boolean expand(int node, int count) {
+        if (size + count > capacity) {
+            return false;
+        }
+
+        nodes.firstChild[node] = size;
+        nodes.childCount[node] = count;
+        size += count;
+        return true;
+    }
+
+    /**
+     * Инициализирует потомка после {@link #expand(int, int)}.
+     */
+    public void initChild(int child, int move, long key) {
+        nodes.init(child, move, key);
+    }
+
+    /**
+     * Добавляет результаты розыгрышей к узлу.
+     *
+     * @param node   Узел.
+     * @param reward Сумма результатов с точки зрения игрока, сделавшего ход в узел.
+     * @param visits Количество розыгрышей.
+     */
+    public void update(int node, double reward, int visits) {
+        nodes.values[node] += reward;
+        nodes.visits[node] += visits;
+    }
+
+    /**
+     * Ищет среди потомков корня и их потомков узел с указанной позицией и делает его новым корнем.
+     * Остальная часть дерева отбрасывается.
+     *
+     * @param key Ключ новой позиции.
+     * @return Количество сохраненных узлов или 0, если позиция не найдена.
+     */
+    public int reuse(long key) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int found = nodes.keys[ROOT] == key ? ROOT : find(ROOT, key);
+        if (found < 0) {
+            for (int i = 0; i < getChildCount(ROOT) && found < 0; i++) {
+                found = find(getFirstChild(ROOT) + i, key);
+            }
+        }
+        if (found < 0) {
+            return 0;
+        }
+        if (found != ROOT) {
+            reroot(found);
+        }
+        return size;
+    }
+
+    private int find(int node, long key) {
+        int first = nodes.firstChild[node];
+        for (int i = 0; i < nodes.childCount[node]; i++) {
+            if (nodes.keys[first + i] == key) {
+                return first + i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Переносит поддерево узла во второй набор массивов обходом в ширину. Очередью обхода служат сами
+     * новые индексы: узел с новым индексом {@code next} ссылается на старый индекс через {@code origin}.
+     */
+    private void reroot(int newRoot) {
+        if (spare == null) {
+            spare = new Nodes(capacity);
+        }
+
+        int[] origin = spare.firstChild;
+        spare.copyNode(ROOT, nodes, newRoot);
+        origin[ROOT] = newRoot;
+        int newSize = 1;
+
+        for (int next = 0; next < newSize; next++) {
+            int old = origin[next];
+            int first = nodes.firstChild[old];
+            int count = nodes.childCount[old];
+            if (first == NOT_EXPANDED) {
+                spare.firstChild[next] = NOT_EXPANDED;
+                continue;
+            }
+
+            for (int i = 0; i < count; i++) {
+                spare.copyNode(newSize + i, nodes, first + i);
+                origin[newSize + i] = first + i;
+            }
+            spare.firstChild[next] = newSize;
+            spare.childCount[next] = count;
+            newSize += count;
+        }
+
+        Nodes old = nodes;
+        nodes = spare;
+        spare = old;
+        size = newSize;
+    }
+
+    public int getMove(int node) {
+        return nodes.moves[node];
+    }
+
+    public int getFirstChild(int node) {
+        return nodes.firstChild[node];
+    }
+
+    public int getChildCount(int node) {
+        return nodes.childCount[node];
+    }
+
+    public boolean isExpanded(int node) {
+        return nodes.firstChild[node] != NOT_EXPANDED;
+    }
+
+    public int getVisits(int node) {
+        return nodes.visits[node];
+    }
+
+    public double getValue(int node) {
+        return nodes.values[node];
+    }
+
+    public long getKey(int node) {
+        return nodes.keys[node];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Объем всех выделенных массивов в байтах, включая второй набор для переноса дерева.
+     */
+    public long getAllocatedBytes() {
+        return (long) capacity * NODE_BYTES * (spare == null ? 1 : 2);
+    }
+
+    /**
+     * Один набор массивов узлов.
+     */
+    private static class Nodes {
+        final int[] moves;
+        final int[] firstChild;
+        final int[] childCount;
+        final int[] visits;
+        final double[] values;
+        final long[] keys;
+
+        Nodes(int capacity) {
+            moves = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            visits = new int[capacity];
+            values = new double[capacity];
+            keys = new long[capacity];
+        }
+
+        void init(int node, int move, long key) {
+            moves[node] = move;
+            firstChild[node] = NOT_EXPANDED;
+            childCount[node] = 0;
+            visits[node] = 0;
+            values[node] = 0;
+            keys[node] = key;
+        }
+
+        void copyNode(int node, Nodes source, int sourceNode) {
+            moves[node] = source.moves[sourceNode];
+            childCount[node] = 0;
+            visits[node] = source.visits[sourceNode];
+            values[node] = source.values[sourceNode];
+            keys[node] = source.keys[sourceNode];
+        }
+    }
+}
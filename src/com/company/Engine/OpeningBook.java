@@ -0,0 +1,131 @@
+package com.company.Engine;
+
+import com.company.Game.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Книга дебютов: статистика ходов, сыгранных в позициях из архива партий.
+ *
+ * Файл книги - заголовок и записи фиксированной длины, отсортированные по ключу позиции и ходу.
+ * Файл отображается в память целиком, поэтому открытие книги не зависит от ее размера, а поиск - это
+ * двоичный поиск по отображенному буферу без выделения памяти. Буфер только читается, поэтому одну
+ * книгу могут использовать несколько потоков.
+ *
+ * Формат заголовка: сигнатура {@code 'U' 'G' 'B'}, версия (байт), длина записи (int), количество
+ * записей (long). Формат записи: ключ позиции (long), ход (int), количество партий (int), очки стороны,
+ * сделавшей ход, в половинах очка (int).
+ */
+public class OpeningBook {
+    public static final byte[] MAGIC = { 'U', 'G', 'B' };
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int ENTRY_BYTES = 20;
+    static final int MOVE_OFFSET = 8;
+    static final int GAMES_OFFSET = 12;
+    static final int POINTS_OFFSET = 16;
+
+    private final ByteBuffer buffer;
+    private final int entries;
+
+    /**
+     * @param buffer Содержимое файла книги.
+     * @throws IOException Если заголовок не совпадает с форматом.
+     */
+    public OpeningBook(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IOException("Файл не является книгой дебютов.");
+            }
+        }
+        if (buffer.get(MAGIC.length) != VERSION || buffer.getInt(4) != ENTRY_BYTES) {
+            throw new IOException("Неподдерживаемая версия книги дебютов.");
+        }
+
+        long count = buffer.getLong(8);
+        if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("Количество записей книги не совпадает с размером файла.");
+        }
+        this.entries = (int) count;
+    }
+
+    /**
+     * Отображает файл книги в память.
+     *
+     * @param path Путь к файлу книги.
+     * @return Книга дебютов
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Ищет в книге самый часто игравшийся ход позиции, при равенстве - ход с большим количеством очков.
+     *
+     * @param key Ключ позиции (см. {@link com.company.Game.UgolkiGame#getPositionKey()}).
+     * @return Упакованный ход или {@link Move#NONE}, если позиции нет в книге.
+     */
+    public int probe(long key) {
+        int entry = lowerBound(key);
+        int bestMove = Move.NONE;
+        int bestGames = 0;
+        int bestPoints = -1;
+
+        for (; entry < entries && keyOf(entry) == key; entry++) {
+            int offset = HEADER_BYTES + entry * ENTRY_BYTES;
+            int games = buffer.getInt(offset + GAMES_OFFSET);
+            int points = buffer.getInt(offset + POINTS_OFFSET);
+            if (games > bestGames || (games == bestGames && points > bestPoints)) {
+                bestMove = buffer.getInt(offset + MOVE_OFFSET);
+                bestGames = games;
+                bestPoints = points;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * @return Количество партий, в которых позиция встречалась в архиве.
+     */
+    public int countGames(long key) {
+        int total = 0;
+        for (int entry = lowerBound(key); entry < entries && keyOf(entry) == key; entry++) {
+            total += buffer.getInt(HEADER_BYTES + entry * ENTRY_BYTES + GAMES_OFFSET);
+        }
+        return total;
+    }
+
+    public int getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Номер первой записи с ключом не меньше указанного.
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyOf(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyOf(int entry) {
+        return buffer.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+}
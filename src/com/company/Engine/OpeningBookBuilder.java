@@ -0,0 +1,151 @@
+package com.company.Engine;
+
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Game.WinCheckResponse;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+import com.company.Record.GameRecordReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Построение книги дебютов {@link OpeningBook} по архивам партий {@link GameRecordReader}.
+ *
+ * Каждая партия воспроизводится на первые {@code maxPlies} полуходов; для каждой позиции запоминается
+ * сыгранный ход и результат партии для стороны, сделавшей ход. В книгу попадают позиции, встретившиеся
+ * не меньше чем в {@code minGames} партиях.
+ *
+ * Использование: {@code OpeningBookBuilder <файл книги> <полуходов> <минимум партий> <архив> [...]}.
+ */
+public class OpeningBookBuilder {
+
+    private final int maxPlies;
+    private final int minGames;
+    // Ключ позиции -> ход -> {партии, очки в половинах очка}
+    private final Map<Long, Map<Integer, int[]>> positions = new HashMap<Long, Map<Integer, int[]>>();
+
+    public OpeningBookBuilder(int maxPlies, int minGames) {
+        if (maxPlies <= 0 || minGames <= 0) {
+            throw new IllegalArgumentException("Глубина книги и минимум партий должны быть положительными.");
+        }
+        this.maxPlies = maxPlies;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Добавляет в статистику все партии архива.
+     *
+     * @param reader Читатель архива
+     * @return Количество добавленных партий
+     */
+    public long addArchive(GameRecordReader reader) throws IOException {
+        UgolkiGame game = null;
+        long games = 0;
+
+        while (reader.next()) {
+            if (game == null || game.getBoard().getWidth() != reader.getWidth()
+                    || game.getBoard().getHeight() != reader.getHeight()
+                    || game.getWinCriteria().getCampWidth() != reader.getCampWidth()
+                    || game.getWinCriteria().getCampHeight() != reader.getCampHeight()) {
+                Board board = new Board(reader.getWidth(), reader.getHeight());
+                game = new UgolkiGame(board, new Player("Player 1"), new Player("Player 2"),
+                        new UgolkiPathChecker(board), new UgolkiWinCriteria(reader.getCampWidth(), reader.getCampHeight()));
+            }
+            reader.start(game);
+
+            WinCheckResponse.Status status = reader.getStatus();
+            Figure.Color winner = reader.getWinner();
+            int plies = Math.min(maxPlies, reader.getMoveCount());
+            for (int i = 0; i < plies; i++) {
+                int move = reader.getMove(i);
+                int[] stats = positions.computeIfAbsent(game.getPositionKey(), key -> new HashMap<Integer, int[]>())
+                        .computeIfAbsent(move, key -> new int[2]);
+                stats[0]++;
+                stats[1] += points(status, winner, game.getActiveColor());
+                game.makeMove(move);
+            }
+            games++;
+        }
+        return games;
+    }
+
+    /**
+     * Записывает книгу, отсортированную по ключу позиции и ходу.
+     *
+     * @param path Путь к файлу книги
+     * @return Количество записей книги
+     */
+    public int write(String path) throws IOException {
+        List<long[]> entries = new ArrayList<long[]>();
+        for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet()) {
+            int games = 0;
+            for (int[] stats : position.getValue().values()) {
+                games += stats[0];
+            }
+            if (games < minGames) {
+                continue;
+            }
+
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                int[] stats = move.getValue();
+                entries.add(new long[] { position.getKey(), move.getKey(), stats[0], stats[1] });
+            }
+        }
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path), 1 << 16))) {
+            out.write(OpeningBook.MAGIC);
+            out.writeByte(OpeningBook.VERSION);
+            out.writeInt(OpeningBook.ENTRY_BYTES);
+            out.writeLong(entries.size());
+            for (long[] entry : entries) {
+                out.writeLong(entry[0]);
+                out.writeInt((int) entry[1]);
+                out.writeInt((int) entry[2]);
+                out.writeInt((int) entry[3]);
+            }
+        }
+        return entries.size();
+    }
+
+    /**
+     * Очки стороны в половинах очка: 2 за победу, 1 за ничью или незаконченную партию, 0 за поражение.
+     */
+    private static int points(WinCheckResponse.Status status, Figure.Color winner, Figure.Color color) {
+        if (status != WinCheckResponse.Status.FINISHED || winner == null) {
+            return 1;
+        }
+        return winner == color ? 2 : 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Использование: OpeningBookBuilder <файл книги> <полуходов> <минимум партий> "
+                    + "<архив> [...]");
+            return;
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        long games = 0;
+        for (int i = 3; i < args.length; i++) {
+            try (GameRecordReader reader = new GameRecordReader(new FileInputStream(args[i]))) {
+                games += builder.addArchive(reader);
+            }
+        }
+
+        int entries = builder.write(args[0]);
+        System.out.println(games + " games, " + entries + " book entries written to " + args[0]);
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.Engine;
+
+import com.company.Game.GameVariant;
+import com.company.Game.PositionFormat;
+import com.company.Game.UgolkiGame;
+import com.company.Game.WinCheckResponse;
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+
+/**
+ * Подсчет листьев дерева допустимых ходов (perft) до заданной глубины.
+ *
+ * Число листьев зависит только от правил генерации ходов, поэтому служит эталоном при оптимизации
+ * генератора: до и после изменения на одних и тех же позициях должны получаться одинаковые числа.
+ * Позиции, в которых игра завершилась, считаются листьями и не раскрываются. Режим "divide"
+ * раскладывает результат по ходам из корня, что помогает найти расхождение.
+ *
+ * Использование: {@code Perft <глубина> [divide] [--variant=<вариант>] [позиция] [w|b]}, где вариант
+ * задается в записи {@link GameVariant} (по умолчанию 8x8:4x3), позиция - в записи {@link PositionFormat},
+ * а по умолчанию используется начальная расстановка с ходом белых.
+ */
+public class Perft {
+    private static final int MAX_DEPTH = 64;
+
+    private final UgolkiGame game;
+    private final int[][] moves;
+
+    /**
+     * @param game Игра, в позиции которой выполняется подсчет. Позиция после подсчета не меняется.
+     */
+    public Perft(UgolkiGame game) {
+        this.game = game;
+        this.moves = new int[MAX_DEPTH][game.getMaxMoves()];
+    }
+
+    /**
+     * Считает листья дерева ходов до указанной глубины.
+     *
+     * @param depth Глубина в полуходах
+     * @return Количество листьев
+     */
+    public long perft(int depth) {
+        return perft(depth, 0);
+    }
+
+    /**
+     * Считает листья для каждого хода из корня и выводит результат по ходам.
+     *
+     * @param depth Глубина в полуходах, не меньше 1
+     * @return Общее количество листьев
+     */
+    public long divide(int depth) {
+        if (depth <= 0) {
+            return perft(depth);
+        }
+
+        int[] rootMoves = moves[0];
+        int count = game.generateMoves(rootMoves, 0);
+        long total = 0;
+
+        for (int i = 0; i < count; i++) {
+            int move = rootMoves[i];
+            String name = game.moveToString(move);
+            game.makeMove(move);
+            long nodes = isGameOver() ? 1 : perft(depth - 1, 1);
+            game.unmakeMove(move);
+
+            System.out.println(name + ": " + nodes);
+            total += nodes;
+        }
+
+        return total;
+    }
+
+    private long perft(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        int[] buffer = moves[ply];
+        int count = game.generateMoves(buffer, 0);
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(buffer[i]);
+            nodes += isGameOver() ? 1 : perft(depth - 1, ply + 1);
+            game.unmakeMove(buffer[i]);
+        }
+        return nodes;
+    }
+
+    private boolean isGameOver() {
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        return status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Использование: Perft <глубина> [divide] [--variant=<вариант>] [позиция] [w|b]");
+            return;
+        }
+
+        int depth = Math.min(Integer.parseInt(args[0]), MAX_DEPTH - 1);
+        int next = 1;
+        boolean divide = args.length > next && args[next].equalsIgnoreCase("divide");
+        if (divide) {
+            next++;
+        }
+        GameVariant variant = GameVariant.STANDARD;
+        if (args.length > next && args[next].startsWith(GameVariant.OPTION)) {
+            variant = GameVariant.parse(args[next++].substring(GameVariant.OPTION.length()));
+        }
+
+        UgolkiGame game = variant.createGame(new Player("White"), new Player("Black"));
+        Board board = game.getBoard();
+        game.startGame();
+
+        if (args.length > next) {
+            BitBoard position = new BitBoard(board.getWidth(), board.getHeight());
+            PositionFormat.parse(args[next], position);
+            boolean blackToMove = args.length > next + 1 && args[next + 1].equalsIgnoreCase("b");
+            game.setPosition(position, blackToMove ? Figure.Color.BLACK : Figure.Color.WHITE);
+        }
+
+        Perft perft = new Perft(game);
+        long start = System.nanoTime();
+        long nodes = divide ? perft.divide(depth) : perft.perft(depth);
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+        System.out.printf("perft(%d) = %d, %d ms, %d nodes/s%n",
+                depth, nodes, elapsedNanos / 1_000_000, nodes * 1_000_000_000L / elapsedNanos);
+    }
+}
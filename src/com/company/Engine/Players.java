@@ -0,0 +1,158 @@
+package com.company.Engine;
+
+import com.company.Model.Player;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Создание игроков по текстовому описанию из аргументов командной строки.
+ *
+ * Поддерживаемые описания:
+ * <ul>
+ *     <li>{@code human} - человек;</li>
+ *     <li>{@code alphabeta[:миллисекунды[:мегабайты[:потоки]]]} - компьютерный игрок с поиском альфа-бета,
+ *     таблицей транспозиций указанного размера и заданным количеством потоков;</li>
+ *     <li>{@code mcts[:миллисекунды[:потоки[:мегабайты]]]} - компьютерный игрок с поиском Монте-Карло
+ *     по дереву указанного объема и параллельными розыгрышами.</li>
+ * </ul>
+ * К описанию компьютерного игрока можно добавить книгу дебютов: {@code alphabeta:500@book.ugb} или
+ * {@code alphabeta:500@book=book.ugb} (см. {@link OpeningBook}), а игроку с поиском альфа-бета - таблицу
+ * эндшпиля: {@code alphabeta:500@book=book.ugb@tb=race3.ugt} (см. {@link Tablebase}).
+ */
+public final class Players {
+    public static final String HUMAN = "human";
+    public static final String ALPHA_BETA = "alphabeta";
+    public static final String MCTS = "mcts";
+    public static final String BOOK_OPTION = "book=";
+    public static final String TABLEBASE_OPTION = "tb=";
+
+    private Players() {
+    }
+
+    /**
+     * Создает игрока по описанию.
+     *
+     * @param spec Описание игрока, например, "human" или "alphabeta:500".
+     * @param name Имя игрока.
+     * @throws IllegalArgumentException Если описание не распознано.
+     * @return Игрок
+     */
+    public static Player create(String spec, String name) throws IllegalArgumentException {
+        int optionSeparator = spec.indexOf('@');
+        if (optionSeparator >= 0) {
+            Player player = create(spec.substring(0, optionSeparator), name);
+            for (String option : spec.substring(optionSeparator + 1).split("@")) {
+                applyOption(player, option, spec);
+            }
+            return player;
+        }
+
+        String[] parts = spec.toLowerCase().split(":");
+        String type = parts[0];
+
+        if (HUMAN.equals(type)) {
+            return new Player(name);
+        }
+        if (ALPHA_BETA.equals(type)) {
+            long budget = parts.length > 1 ? parseNumber(parts[1]) : AlphaBetaPlayer.DEFAULT_TIME_BUDGET_MILLIS;
+            int hashSize = parts.length > 2 ? (int) parseNumber(parts[2]) : TranspositionTable.DEFAULT_SIZE_MB;
+            int threads = parts.length > 3 ? (int) parseNumber(parts[3]) : 1;
+            return new AlphaBetaPlayer(name, budget, AlphaBetaPlayer.DEFAULT_MAX_DEPTH, hashSize, threads);
+        }
+        if (MCTS.equals(type)) {
+            long budget = parts.length > 1 ? parseNumber(parts[1]) : MctsPlayer.DEFAULT_TIME_BUDGET_MILLIS;
+            int threads = parts.length > 2 ? (int) parseNumber(parts[2]) : 1;
+            int treeSize = parts.length > 3 ? (int) parseNumber(parts[3]) : MctsSearch.DEFAULT_SIZE_MB;
+            return new MctsPlayer(name, budget, threads, treeSize);
+        }
+
+        throw new IllegalArgumentException("Неизвестный тип игрока: " + spec);
+    }
+
+    /**
+     * Проверяет описание игрока так же, как {@link #create(String, String)}, но не создает игрока:
+     * таблицы транспозиций, деревья поиска и потоки не выделяются, а файлы книги и таблицы эндшпиля
+     * только проверяются на доступность для чтения.
+     *
+     * @param spec Описание игрока
+     * @return {@code true}, если описание задает компьютерного игрока.
+     * @throws IllegalArgumentException Если описание не распознано.
+     */
+    public static boolean isComputer(String spec) throws IllegalArgumentException {
+        int optionSeparator = spec.indexOf('@');
+        String[] parts = (optionSeparator >= 0 ? spec.substring(0, optionSeparator) : spec).toLowerCase().split(":");
+        String type = parts[0];
+        if (!HUMAN.equals(type) && !ALPHA_BETA.equals(type) && !MCTS.equals(type)) {
+            throw new IllegalArgumentException("Неизвестный тип игрока: " + spec);
+        }
+        if (!HUMAN.equals(type)) {
+            // create() разбирает не больше трех чисел после типа: время, размер и потоки.
+            for (int i = 1; i < Math.min(parts.length, 4); i++) {
+                parseNumber(parts[i]);
+            }
+        }
+
+        if (optionSeparator >= 0) {
+            for (String option : spec.substring(optionSeparator + 1).split("@")) {
+                String path;
+                if (option.startsWith(TABLEBASE_OPTION)) {
+                    if (!ALPHA_BETA.equals(type)) {
+                        throw new IllegalArgumentException("Таблицу эндшпиля можно задать только игроку alphabeta: " + spec);
+                    }
+                    path = option.substring(TABLEBASE_OPTION.length());
+                } else {
+                    if (HUMAN.equals(type)) {
+                        throw new IllegalArgumentException("Книгу дебютов можно задать только компьютерному игроку: " + spec);
+                    }
+                    path = option.startsWith(BOOK_OPTION) ? option.substring(BOOK_OPTION.length()) : option;
+                }
+                if (!Files.isReadable(Paths.get(path))) {
+                    throw new IllegalArgumentException("Файл недоступен для чтения: " + path);
+                }
+            }
+        }
+        return !HUMAN.equals(type);
+    }
+
+    private static void applyOption(Player player, String option, String spec) throws IllegalArgumentException {
+        if (option.startsWith(TABLEBASE_OPTION)) {
+            if (!(player instanceof AlphaBetaPlayer)) {
+                throw new IllegalArgumentException("Таблицу эндшпиля можно задать только игроку alphabeta: " + spec);
+            }
+            ((AlphaBetaPlayer) player).setTablebase(openTablebase(option.substring(TABLEBASE_OPTION.length())));
+            return;
+        }
+
+        if (!(player instanceof ComputerPlayer)) {
+            throw new IllegalArgumentException("Книгу дебютов можно задать только компьютерному игроку: " + spec);
+        }
+        String path = option.startsWith(BOOK_OPTION) ? option.substring(BOOK_OPTION.length()) : option;
+        ((ComputerPlayer) player).setOpeningBook(openBook(path));
+    }
+
+    private static Tablebase openTablebase(String path) throws IllegalArgumentException {
+        try {
+            return Tablebase.open(Paths.get(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Не удалось открыть таблицу эндшпиля " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static OpeningBook openBook(String path) throws IllegalArgumentException {
+        try {
+            return OpeningBook.open(Paths.get(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Не удалось открыть книгу дебютов " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long parseNumber(String value) throws IllegalArgumentException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное число в описании игрока: " + value, e);
+        }
+    }
+}
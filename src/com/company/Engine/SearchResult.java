@@ -0,0 +1,89 @@
+package com.company.Engine;
+
+/**
+ * Результат поиска хода: лучший ход, его оценка и статистика перебора.
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final long tableProbes;
+    private final long tableHits;
+    private final long tableStores;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis) {
+        this(bestMove, score, depth, nodes, elapsedMillis, 0, 0, 0);
+    }
+
+    /**
+     * @param tableProbes Обращения к таблице транспозиций.
+     * @param tableHits   Найденные в таблице записи.
+     * @param tableStores Записанные в таблицу результаты.
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis,
+                        long tableProbes, long tableHits, long tableStores) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.tableStores = tableStores;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return Глубина последней полностью завершенной итерации.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    public long getTableStores() {
+        return tableStores;
+    }
+
+    /**
+     * @return Доля успешных обращений к таблице транспозиций от 0 до 1.
+     */
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, score %d, nodes %d, %d ms, %d nodes/s, tt hits %.0f%%",
+                depth, score, nodes, elapsedMillis, getNodesPerSecond(), getTableHitRate() * 100);
+    }
+}
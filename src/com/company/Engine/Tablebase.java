@@ -0,0 +1,279 @@
+package com.company.Engine;
+
+import com.company.Model.Figure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Таблица эндшпиля: точное число ходов до заполнения целевой зоны (distance to finish) для позиций,
+ * в которых вне зоны осталось не больше {@code K} фигур стороны.
+ *
+ * Таблица строится для одной стороны без учета фигур противника (см. {@link TablebaseGenerator}) и
+ * хранится для белых. Целевая зона черных - зона белых, повернутая на 180 градусов, поэтому позиция
+ * черных переводится в позицию белых разворотом битовой маски.
+ *
+ * Индекс позиции - совершенный хеш без пропусков: позиции сгруппированы по числу {@code k} фигур вне
+ * зоны, внутри группы индекс составлен из номеров сочетаний пустых клеток зоны и занятых клеток вне ее
+ * в комбинаторной системе счисления. Поэтому файл хранит только значения, по байту на позицию, а
+ * запрос стоит O(K) операций независимо от размера таблицы.
+ *
+ * Формат файла: сигнатура {@code 'U' 'G' 'T'}, версия, ширина, высота, K, число фигур (по байту),
+ * маска целевой зоны белых (long), количество записей (long), затем значения.
+ */
+public class Tablebase {
+    public static final byte[] MAGIC = { 'U', 'G', 'T' };
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 24;
+    /**
+     * Значение для позиции, из которой зону нельзя заполнить или которая еще не рассчитана.
+     */
+    public static final int UNKNOWN = 0xFF;
+    public static final int MAX_DISTANCE = UNKNOWN - 1;
+    /**
+     * Оценка выигранной гонки без учета числа ходов. Значительно больше обычной оценки позиции и
+     * значительно меньше оценки выигрыша {@link AlphaBetaSearch#WIN_SCORE}, так как таблица не учитывает
+     * фигуры противника.
+     */
+    public static final int RACE_WIN_SCORE = 100_000;
+
+    private final int width;
+    private final int height;
+    private final int size;
+    private final int maxOutside;
+    private final int pieces;
+    private final long target;
+    private final int[] targetRank;
+    private final int[] outsideRank;
+    private final int[] targetSquares;
+    private final int[] outsideSquares;
+    private final long[][] binomial;
+    private final long[] offsets;
+    private final long entries;
+    private final ByteBuffer buffer;
+
+    /**
+     * Создает описание индекса таблицы.
+     *
+     * @param width      Ширина доски.
+     * @param height     Высота доски.
+     * @param target     Маска целевой зоны белых.
+     * @param maxOutside Наибольшее число фигур вне зоны K.
+     * @param buffer     Содержимое файла таблицы или {@code null}, если значения еще не рассчитаны.
+     */
+    Tablebase(int width, int height, long target, int maxOutside, ByteBuffer buffer) {
+        if (width * height > Long.SIZE) {
+            throw new IllegalArgumentException("Таблица эндшпиля строится только для досок до 64 клеток: "
+                    + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+        this.target = target;
+        this.pieces = Long.bitCount(target);
+        if (maxOutside < 0 || maxOutside > pieces) {
+            throw new IllegalArgumentException("Недопустимое число фигур вне зоны: " + maxOutside);
+        }
+        this.maxOutside = maxOutside;
+
+        this.targetRank = new int[size];
+        this.outsideRank = new int[size];
+        this.targetSquares = new int[pieces];
+        this.outsideSquares = new int[size - pieces];
+        int targetCount = 0;
+        int outsideCount = 0;
+        for (int square = 0; square < size; square++) {
+            if ((target >>> square & 1) != 0) {
+                targetSquares[targetCount] = square;
+                targetRank[square] = targetCount++;
+            } else {
+                outsideSquares[outsideCount] = square;
+                outsideRank[square] = outsideCount++;
+            }
+        }
+
+        this.binomial = new long[size + 1][maxOutside + 2];
+        for (int n = 0; n <= size; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, maxOutside + 1); k++) {
+                binomial[n][k] = binomial[n - 1][k - 1] + binomial[n - 1][k];
+            }
+        }
+
+        this.offsets = new long[maxOutside + 2];
+        for (int k = 0; k <= maxOutside; k++) {
+            offsets[k + 1] = offsets[k] + binomial[pieces][k] * binomial[size - pieces][k];
+        }
+        this.entries = offsets[maxOutside + 1];
+        if (HEADER_BYTES + entries > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Слишком большая таблица для K = " + maxOutside);
+        }
+        this.buffer = buffer;
+    }
+
+    /**
+     * Открывает файл таблицы, отображая его в память.
+     *
+     * @param path Путь к файлу таблицы.
+     * @return Таблица
+     * @throws IOException Если файл не является таблицей эндшпиля.
+     */
+    public static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Читает таблицу из содержимого файла.
+     */
+    static Tablebase read(ByteBuffer buffer) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IOException("Файл не является таблицей эндшпиля.");
+            }
+        }
+        if (buffer.get(3) != VERSION) {
+            throw new IOException("Неподдерживаемая версия таблицы эндшпиля.");
+        }
+
+        Tablebase tablebase = new Tablebase(buffer.get(4), buffer.get(5), buffer.getLong(8), buffer.get(6), buffer);
+        if (buffer.get(7) != tablebase.pieces || buffer.getLong(16) != tablebase.entries
+                || buffer.capacity() < HEADER_BYTES + tablebase.entries) {
+            throw new IOException("Заголовок таблицы эндшпиля не совпадает с ее размером.");
+        }
+        return tablebase;
+    }
+
+    /**
+     * Запрос к таблице за O(K).
+     *
+     * @param mask  Маска фигур стороны.
+     * @param color Цвет стороны.
+     * @return Число ходов стороны до заполнения целевой зоны или {@link #UNKNOWN}, если позиции нет в таблице.
+     */
+    public int probe(long mask, Figure.Color color) {
+        long index = index(color == Figure.Color.WHITE ? mask : rotate(mask));
+        return index < 0 ? UNKNOWN : buffer.get(HEADER_BYTES + (int) index) & 0xFF;
+    }
+
+    /**
+     * Оценка гонки для стороны, которая делает ход, по числу ходов до финиша обеих сторон с учетом
+     * правила последнего хода черных.
+     *
+     * @param side     Сторона, которая делает ход.
+     * @param own      Число ходов до финиша стороны.
+     * @param opponent Число ходов до финиша противника.
+     * @return Оценка: около {@link #RACE_WIN_SCORE} при выигранной гонке, 0 при ничьей.
+     */
+    public static int raceScore(Figure.Color side, int own, int opponent) {
+        boolean white = side == Figure.Color.WHITE;
+        if (own < opponent || (own == opponent && !white)) {
+            return RACE_WIN_SCORE - own;
+        }
+        if (own == opponent || (own == opponent + 1 && !white)) {
+            return 0;
+        }
+        return -RACE_WIN_SCORE + opponent;
+    }
+
+    /**
+     * Совершенный хеш позиции белых.
+     *
+     * @param mask Маска фигур белых.
+     * @return Индекс от 0 до {@link #getEntryCount()} или -1, если позиция не входит в таблицу.
+     */
+    long index(long mask) {
+        if (Long.bitCount(mask) != pieces) {
+            return -1;
+        }
+        long outside = mask & ~target;
+        int k = Long.bitCount(outside);
+        if (k > maxOutside) {
+            return -1;
+        }
+
+        long emptyRank = 0;
+        int i = 1;
+        for (long empty = target & ~mask; empty != 0; empty &= empty - 1) {
+            emptyRank += binomial[targetRank[Long.numberOfTrailingZeros(empty)]][i++];
+        }
+        long outsideRankSum = 0;
+        i = 1;
+        for (long rest = outside; rest != 0; rest &= rest - 1) {
+            outsideRankSum += binomial[outsideRank[Long.numberOfTrailingZeros(rest)]][i++];
+        }
+        return offsets[k] + emptyRank * binomial[size - pieces][k] + outsideRankSum;
+    }
+
+    /**
+     * Позиция белых по индексу, обратное преобразование к {@link #index(long)}.
+     */
+    long unindex(long index) {
+        int k = 0;
+        while (offsets[k + 1] <= index) {
+            k++;
+        }
+
+        long rank = index - offsets[k];
+        long outsideCombinations = binomial[size - pieces][k];
+        long mask = target | unrank(rank % outsideCombinations, k, outsideSquares);
+        return mask & ~unrank(rank / outsideCombinations, k, targetSquares);
+    }
+
+    private long unrank(long rank, int k, int[] squares) {
+        long mask = 0;
+        for (int i = k; i >= 1; i--) {
+            int c = i - 1;
+            while (binomial[c + 1][i] <= rank) {
+                c++;
+            }
+            rank -= binomial[c][i];
+            mask |= 1L << squares[c];
+        }
+        return mask;
+    }
+
+    /**
+     * Поворот позиции на 180 градусов: клетка {@code s} переходит в клетку {@code size - 1 - s}.
+     */
+    long rotate(long mask) {
+        return Long.reverse(mask) >>> (Long.SIZE - size);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMaxOutside() {
+        return maxOutside;
+    }
+
+    public long getTarget() {
+        return target;
+    }
+
+    public long getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Проверяет, что таблица построена для доски и целевых зон игры.
+     *
+     * @param whitesTarget Маска целевой зоны белых.
+     * @param blacksTarget Маска целевой зоны черных.
+     */
+    public boolean matches(int width, int height, long whitesTarget, long blacksTarget) {
+        return this.width == width && this.height == height
+                && target == whitesTarget && rotate(target) == blacksTarget;
+    }
+}
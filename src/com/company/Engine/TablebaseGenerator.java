@@ -0,0 +1,175 @@
+package com.company.Engine;
+
+import com.company.Game.Move;
+import com.company.Game.UgolkiMoveGenerator;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Построение таблицы эндшпиля {@link Tablebase} ретроградным анализом.
+ *
+ * Ходы в уголках обратимы: шаг и цепочку прыжков можно пройти в обратную сторону, так как фигуры, через
+ * которые прыгают, остаются на месте. Поэтому расстояние до заполненной зоны считается обходом в ширину
+ * от конечной позиции: на слое {@code d} из всех позиций с расстоянием {@code d} генерируются ходы, и
+ * еще не рассчитанные позиции получают расстояние {@code d + 1}. Каждый слой обрабатывается параллельно
+ * по диапазонам индексов. Разные потоки могут записать одну позицию одновременно, но только одним и тем
+ * же значением, поэтому запись обходится без синхронизации.
+ *
+ * Фигуры противника не учитываются, а позиции с числом фигур вне зоны больше K в обход не попадают.
+ * Поэтому значения - точное расстояние в гонке одной стороны, когда фигуры, уже стоящие в зоне, не
+ * выводятся из нее сверх K.
+ *
+ * Использование: {@code TablebaseGenerator <файл таблицы> <K> [потоки]}.
+ */
+public class TablebaseGenerator {
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final Tablebase tablebase;
+    private final BitBoard template;
+    private final int threads;
+
+    /**
+     * @param template   Доска, по размерам которой строится таблица.
+     * @param target     Маска целевой зоны белых.
+     * @param maxOutside Наибольшее число фигур вне зоны K.
+     * @param threads    Количество потоков.
+     */
+    public TablebaseGenerator(BitBoard template, long target, int maxOutside, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + threads);
+        }
+
+        this.tablebase = new Tablebase(template.getWidth(), template.getHeight(), target, maxOutside, null);
+        this.template = new BitBoard(template);
+        this.template.clearAll();
+        this.threads = threads;
+    }
+
+    /**
+     * Рассчитывает таблицу.
+     *
+     * @return Содержимое файла таблицы: заголовок и значения.
+     */
+    public byte[] generate() throws InterruptedException {
+        int entries = (int) tablebase.getEntryCount();
+        byte[] file = new byte[Tablebase.HEADER_BYTES + entries];
+        ByteBuffer header = ByteBuffer.wrap(file);
+        header.put(Tablebase.MAGIC);
+        header.put((byte) Tablebase.VERSION);
+        header.put((byte) tablebase.getWidth());
+        header.put((byte) tablebase.getHeight());
+        header.put((byte) tablebase.getMaxOutside());
+        header.put((byte) Long.bitCount(tablebase.getTarget()));
+        header.putLong(tablebase.getTarget());
+        header.putLong(entries);
+
+        Arrays.fill(file, Tablebase.HEADER_BYTES, file.length, (byte) Tablebase.UNKNOWN);
+        file[Tablebase.HEADER_BYTES + (int) tablebase.index(tablebase.getTarget())] = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            int chunks = threads * CHUNKS_PER_THREAD;
+            int chunkSize = (entries + chunks - 1) / chunks;
+            for (int distance = 0; distance < Tablebase.MAX_DISTANCE; distance++) {
+                List<Future<Long>> layer = new ArrayList<Future<Long>>();
+                for (int start = 0; start < entries; start += chunkSize) {
+                    int from = start;
+                    int to = Math.min(entries, start + chunkSize);
+                    int current = distance;
+                    layer.add(pool.submit(() -> expand(file, from, to, current)));
+                }
+
+                long expanded = 0;
+                for (Future<Long> future : layer) {
+                    expanded += future.get();
+                }
+                if (expanded == 0) {
+                    break;
+                }
+                System.out.printf("distance %d: %d positions%n", distance, expanded);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка при построении таблицы", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return file;
+    }
+
+    /**
+     * Раскрывает позиции слоя в диапазоне индексов.
+     *
+     * @return Количество позиций слоя в диапазоне.
+     */
+    private long expand(byte[] file, int from, int to, int distance) {
+        BitBoard bitBoard = new BitBoard(template);
+        UgolkiMoveGenerator generator = new UgolkiMoveGenerator(bitBoard);
+        int[] moves = new int[UgolkiMoveGenerator.MAX_MOVES];
+        byte next = (byte) (distance + 1);
+        long count = 0;
+
+        for (int index = from; index < to; index++) {
+            if ((file[Tablebase.HEADER_BYTES + index] & 0xFF) != distance) {
+                continue;
+            }
+            count++;
+
+            long mask = tablebase.unindex(index);
+            bitBoard.clearAll();
+            for (long rest = mask; rest != 0; rest &= rest - 1) {
+                bitBoard.set(Long.numberOfTrailingZeros(rest), Figure.Color.WHITE);
+            }
+
+            int moveCount = generator.generateMoves(Figure.Color.WHITE, moves, 0);
+            for (int i = 0; i < moveCount; i++) {
+                int move = moves[i];
+                long successor = mask ^ BitBoard.bit(Move.from(move)) ^ BitBoard.bit(Move.to(move));
+                long successorIndex = tablebase.index(successor);
+                if (successorIndex >= 0
+                        && (file[Tablebase.HEADER_BYTES + (int) successorIndex] & 0xFF) == Tablebase.UNKNOWN) {
+                    file[Tablebase.HEADER_BYTES + (int) successorIndex] = next;
+                }
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Использование: TablebaseGenerator <файл таблицы> <K> [потоки]");
+            return;
+        }
+
+        int maxOutside = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Board board = new Board();
+        BitBoard bitBoard = board.getBitBoard();
+        long target = new UgolkiWinCriteria().getWinMask(bitBoard, Figure.Color.WHITE);
+        TablebaseGenerator generator = new TablebaseGenerator(bitBoard, target, maxOutside, threads);
+
+        long start = System.currentTimeMillis();
+        byte[] file = generator.generate();
+        try (OutputStream out = new FileOutputStream(args[0])) {
+            out.write(file);
+        }
+
+        System.out.printf("%d positions, K = %d, %d threads, %d ms%n", generator.tablebase.getEntryCount(),
+                maxOutside, threads, System.currentTimeMillis() - start);
+    }
+}
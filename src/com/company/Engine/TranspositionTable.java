@@ -0,0 +1,173 @@
+package com.company.Engine;
+
+import java.util.Arrays;
+
+/**
+ * Таблица транспозиций фиксированного размера на основе массива {@code long[]}.
+ *
+ * Каждая запись занимает два слова: {@code key ^ data} и {@code data}. Запись читается и пишется без
+ * блокировок; если два потока одновременно пишут в одну запись, ключ перестает совпадать с данными
+ * и запись просто не находится при чтении. Число записей - степень двойки, поэтому индекс берется
+ * из младших битов ключа. Запись заменяется, если она пуста, принадлежит той же позиции, осталась от
+ * предыдущего поиска или хранит результат меньшей глубины.
+ *
+ * Формат данных: ход (16 бит), оценка (32 бита), глубина (8 бит), тип границы (2 бита), поколение (6 бит).
+ *
+ * Таблица не ведет статистику обращений: общие счетчики на самых частых вызовах поиска стали бы точкой
+ * конкуренции потоков Lazy SMP. Обращения считает каждый поток {@link AlphaBetaSearch}, а итог
+ * собирается в {@link SearchResult}.
+ */
+public class TranspositionTable {
+    public static final int BOUND_NONE = 0;
+    /**
+     * Оценка не меньше сохраненной (произошло отсечение по beta).
+     */
+    public static final int BOUND_LOWER = 1;
+    /**
+     * Оценка не больше сохраненной (ни один ход не улучшил alpha).
+     */
+    public static final int BOUND_UPPER = 2;
+    public static final int BOUND_EXACT = 3;
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    /**
+     * Наибольшее число записей: массив из двух слов на запись и индекс {@code index << 1} должны
+     * помещаться в int. Это 8 ГБ; таблица большего размера урезается до него.
+     */
+    public static final int MAX_ENTRIES = 1 << 29;
+
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int AGE_SHIFT = 58;
+    private static final int AGE_MASK = 0x3F;
+    private static final int OCCUPANCY_SAMPLE = 1000;
+
+    private final long[] entries;
+    private final int indexMask;
+    private volatile int age;
+
+    /**
+     * Создает таблицу указанного размера. Размер округляется вниз до степени двойки записей и
+     * ограничивается {@link #MAX_ENTRIES} записями.
+     *
+     * @param sizeMb Размер таблицы в мегабайтах.
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb <= 0) {
+            throw new IllegalArgumentException("Размер таблицы должен быть положительным: " + sizeMb);
+        }
+
+        long capacity = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+        int entryCount = (int) Math.min(capacity, MAX_ENTRIES);
+        this.entries = new long[2 * entryCount];
+        this.indexMask = entryCount - 1;
+    }
+
+    /**
+     * Ищет запись для позиции.
+     *
+     * @param key Ключ позиции.
+     * @return Данные записи или 0, если запись не найдена.
+     */
+    public long probe(long key) {
+        int index = ((int) key & indexMask) << 1;
+        long data = entries[index + 1];
+        if (data != 0 && (entries[index] ^ data) == key) {
+            return data;
+        }
+        return 0;
+    }
+
+    /**
+     * Сохраняет результат поиска позиции.
+     *
+     * @param key   Ключ позиции.
+     * @param move  Лучший найденный ход.
+     * @param score Оценка позиции.
+     * @param depth Глубина поиска от 0 до 255.
+     * @param bound Тип границы оценки.
+     * @return {@code false}, если запись не заменена, так как хранит более глубокий результат текущего поиска.
+     */
+    public boolean store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & indexMask) << 1;
+        long oldData = entries[index + 1];
+
+        if (oldData != 0) {
+            boolean samePosition = (entries[index] ^ oldData) == key;
+            boolean oldSearch = ageOf(oldData) != age;
+            if (!samePosition && !oldSearch && depth < depthOf(oldData)) {
+                return false;
+            }
+            if (samePosition && move == 0) {
+                move = moveOf(oldData);
+            }
+        }
+
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFFFFFL) << SCORE_SHIFT
+                | (long) (depth & 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) age << AGE_SHIFT;
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+        return true;
+    }
+
+    /**
+     * Начинает новый поиск: записи предыдущих поисков становятся кандидатами на замену.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    public static int moveOf(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int scoreOf(long data) {
+        return (int) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depthOf(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int boundOf(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int ageOf(long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    public int getCapacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * Оценивает заполненность таблицы по первым записям.
+     *
+     * @return Доля занятых записей от 0 до 1.
+     */
+    public double getOccupancy() {
+        int sample = Math.min(OCCUPANCY_SAMPLE, getCapacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (entries[2 * i + 1] != 0) {
+                used++;
+            }
+        }
+        return (double) used / sample;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hash occupancy %.1f%%", 100 * getOccupancy());
+    }
+}
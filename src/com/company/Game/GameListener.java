@@ -0,0 +1,25 @@
+package com.company.Game;
+
+/**
+ * Наблюдатель за ходом партии, например, для записи партии (см. {@link UgolkiGame#setGameListener}).
+ * Уведомления приходят только от ходов, сделанных игроками через {@link UgolkiGame#move(String, String)}
+ * и {@link UgolkiGame#move(int)}, но не от перебора ходов в поиске.
+ */
+public interface GameListener {
+
+    /**
+     * Вызывается после расстановки фигур в {@link UgolkiGame#startGame()}.
+     *
+     * @param game Начавшаяся игра
+     */
+    void gameStarted(UgolkiGame game);
+
+    /**
+     * Вызывается после выполнения хода. Статус игры после хода доступен через
+     * {@link UgolkiGame#getCurrentStatus()}.
+     *
+     * @param game Игра
+     * @param move Упакованный ход (см. {@link Move})
+     */
+    void moveMade(UgolkiGame game, int move);
+}
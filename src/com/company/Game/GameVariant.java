@@ -0,0 +1,145 @@
+package com.company.Game;
+
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Player;
+
+/**
+ * Вариант игры: размер доски и размер лагерей, например, стандартный 8x8 с лагерями 4x3 или 10x10
+ * с лагерями 4x4. Количество фигур каждой стороны равно площади лагеря.
+ *
+ * Текстовая запись - {@code <ширина>x<высота>[:<ширина лагеря>x<высота лагеря>]}, например,
+ * {@code 12x12:5x5}; без размера лагеря используется стандартный лагерь 4x3.
+ */
+public final class GameVariant {
+    /**
+     * Префикс параметра командной строки с вариантом игры.
+     */
+    public static final String OPTION = "--variant=";
+    public static final GameVariant STANDARD = new GameVariant(8, 8,
+            UgolkiWinCriteria.STANDARD_CAMP_WIDTH, UgolkiWinCriteria.STANDARD_CAMP_HEIGHT);
+
+    private final int width;
+    private final int height;
+    private final int campWidth;
+    private final int campHeight;
+
+    /**
+     * @throws IllegalArgumentException Если доска больше {@link BitBoard#MAX_SQUARES} клеток или шире
+     *                                  {@link Board#CHARACTERS}, а лагеря не помещаются на доску или пересекаются.
+     */
+    public GameVariant(int width, int height, int campWidth, int campHeight) throws IllegalArgumentException {
+        if (width <= 0 || height <= 0 || width > Board.CHARACTERS.length || width * height > BitBoard.MAX_SQUARES) {
+            throw new IllegalArgumentException("Недопустимый размер доски: " + width + "x" + height);
+        }
+        if (campWidth <= 0 || campHeight <= 0) {
+            throw new IllegalArgumentException("Недопустимый размер лагеря: " + campWidth + "x" + campHeight);
+        }
+        UgolkiWinCriteria.checkCamp(width, height, campWidth, campHeight);
+
+        this.width = width;
+        this.height = height;
+        this.campWidth = campWidth;
+        this.campHeight = campHeight;
+    }
+
+    /**
+     * Разбирает текстовую запись варианта.
+     *
+     * @param text Запись вида {@code 10x10:4x4} или {@code 10x10}
+     * @return Вариант игры
+     * @throws IllegalArgumentException Если запись некорректна.
+     */
+    public static GameVariant parse(String text) throws IllegalArgumentException {
+        String[] parts = text.trim().split(":");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Некорректный вариант игры: " + text);
+        }
+
+        int[] board = parseSize(parts[0], text);
+        int[] camp = parts.length == 2 ? parseSize(parts[1], text)
+                : new int[] { UgolkiWinCriteria.STANDARD_CAMP_WIDTH, UgolkiWinCriteria.STANDARD_CAMP_HEIGHT };
+        return new GameVariant(board[0], board[1], camp[0], camp[1]);
+    }
+
+    private static int[] parseSize(String size, String text) {
+        String[] sides = size.toLowerCase().split("x");
+        if (sides.length != 2) {
+            throw new IllegalArgumentException("Некорректный вариант игры: " + text);
+        }
+        try {
+            return new int[] { Integer.parseInt(sides[0]), Integer.parseInt(sides[1]) };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный вариант игры: " + text, e);
+        }
+    }
+
+    public Board createBoard() {
+        return new Board(width, height);
+    }
+
+    public UgolkiWinCriteria createWinCriteria() {
+        return new UgolkiWinCriteria(campWidth, campHeight);
+    }
+
+    /**
+     * Создает игру этого варианта на новой доске. Партия начинается вызовом {@link UgolkiGame#startGame()}.
+     *
+     * @param player1 Первый игрок
+     * @param player2 Второй игрок
+     * @return Новая игра
+     */
+    public UgolkiGame createGame(Player player1, Player player2) {
+        Board board = createBoard();
+        return new UgolkiGame(board, player1, player2, new UgolkiPathChecker(board), createWinCriteria());
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCampWidth() {
+        return campWidth;
+    }
+
+    public int getCampHeight() {
+        return campHeight;
+    }
+
+    /**
+     * @return Количество фигур каждой стороны
+     */
+    public int getPieceCount() {
+        return campWidth * campHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        GameVariant variant = (GameVariant) o;
+        return width == variant.width && height == variant.height
+                && campWidth == variant.campWidth && campHeight == variant.campHeight;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = width;
+        result = 31 * result + height;
+        result = 31 * result + campWidth;
+        result = 31 * result + campHeight;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + ":" + campWidth + "x" + campHeight;
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.Game;
+
+/**
+ * Компактное представление хода в виде одного целого числа: индекс исходной клетки в старших
+ * восьми битах и индекс целевой клетки в младших.
+ */
+public final class Move {
+    /**
+     * Отсутствие хода. Не совпадает ни с одним допустимым ходом, так как исходная и целевая клетки равны.
+     */
+    public static final int NONE = 0;
+    private static final int SQUARE_BITS = 8;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    private Move() {
+    }
+
+    /**
+     * Упаковывает ход.
+     *
+     * @param from Индекс исходной клетки
+     * @param to   Индекс целевой клетки
+     * @return Упакованный ход
+     */
+    public static int of(int from, int to) {
+        return from << SQUARE_BITS | to;
+    }
+
+    public static int from(int move) {
+        return move >>> SQUARE_BITS & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move & SQUARE_MASK;
+    }
+}
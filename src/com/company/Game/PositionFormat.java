@@ -0,0 +1,72 @@
+package com.company.Game;
+
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+
+/**
+ * Текстовая запись позиции: строки доски сверху вниз через "/", где "x" - белая фигура,
+ * "o" - черная фигура, "." - пустая клетка. Обозначения совпадают с консольной отрисовкой
+ * {@link InterfaceDrawer}. Например, начальная позиция:
+ * {@code ....xxxx/....xxxx/....xxxx/......../......../oooo..../oooo..../oooo....}.
+ */
+public final class PositionFormat {
+    public static final char WHITE = 'x';
+    public static final char BLACK = 'o';
+    public static final char EMPTY = '.';
+    private static final String ROW_SEPARATOR = "/";
+
+    private PositionFormat() {
+    }
+
+    /**
+     * Расставляет фигуры по текстовой записи. Прежняя расстановка удаляется.
+     *
+     * @param text     Текстовая запись позиции
+     * @param bitBoard Битовая позиция, в которую записываются фигуры
+     * @throws IllegalArgumentException Если запись не соответствует размеру доски или содержит неизвестные символы.
+     */
+    public static void parse(String text, BitBoard bitBoard) throws IllegalArgumentException {
+        String[] rows = text.trim().split(ROW_SEPARATOR);
+        if (rows.length != bitBoard.getHeight()) {
+            throw new IllegalArgumentException("Ожидается строк: " + bitBoard.getHeight() + ", получено: " + rows.length);
+        }
+
+        bitBoard.clearAll();
+        for (int y = 0; y < rows.length; y++) {
+            if (rows[y].length() != bitBoard.getWidth()) {
+                throw new IllegalArgumentException("Неверная длина строки " + (y + 1) + ": " + rows[y]);
+            }
+
+            for (int x = 0; x < rows[y].length(); x++) {
+                char c = Character.toLowerCase(rows[y].charAt(x));
+                if (c == WHITE) {
+                    bitBoard.set(bitBoard.index(x, y), Figure.Color.WHITE);
+                } else if (c == BLACK) {
+                    bitBoard.set(bitBoard.index(x, y), Figure.Color.BLACK);
+                } else if (c != EMPTY) {
+                    throw new IllegalArgumentException("Неизвестный символ '" + c + "' в строке " + (y + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Текстовая запись расстановки фигур.
+     *
+     * @param bitBoard Битовая позиция
+     * @return Текстовая запись позиции
+     */
+    public static String format(BitBoard bitBoard) {
+        StringBuilder builder = new StringBuilder(bitBoard.getSize() + bitBoard.getHeight());
+        for (int y = 0; y < bitBoard.getHeight(); y++) {
+            if (y > 0) {
+                builder.append(ROW_SEPARATOR);
+            }
+            for (int x = 0; x < bitBoard.getWidth(); x++) {
+                Figure.Color color = bitBoard.getColor(bitBoard.index(x, y));
+                builder.append(color == null ? EMPTY : color == Figure.Color.WHITE ? WHITE : BLACK);
+            }
+        }
+        return builder.toString();
+    }
+}
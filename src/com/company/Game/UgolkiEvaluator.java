@@ -0,0 +1,221 @@
+package com.company.Game;
+
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+
+/**
+ * Оценка позиции в игре уголки по близости сторон к своим целевым зонам.
+ *
+ * Учитываются два признака: суммарное манхэттенское расстояние фигур до дальнего угла целевой зоны
+ * и количество фигур, еще не покинувших свой стартовый лагерь. Оба признака хранятся в счетчиках,
+ * которые обновляются при выполнении и отмене хода за O(1), поэтому оценка узла поиска не требует
+ * обхода доски. Метод {@link #evaluate(BitBoard, Figure.Color)} считает ту же оценку полным
+ * перебором и служит эталоном для проверки счетчиков.
+ */
+public class UgolkiEvaluator {
+    /**
+     * Вес одной клетки разницы в суммарном расстоянии до цели.
+     */
+    public static final int DISTANCE_WEIGHT = 2;
+    /**
+     * Штраф за каждую фигуру, оставшуюся в стартовом лагере.
+     */
+    public static final int STRAGGLER_WEIGHT = 3;
+
+    // Расстояние от клетки до дальнего угла целевой зоны, индекс - Figure.Color.ordinal()
+    private final int[][] distances;
+    // Маски стартовых лагерей по словам и признаки клетки лагеря по индексу клетки
+    private final long[][] homeWords;
+    private final byte[][] inHome;
+    private final int[] distanceSums;
+    private final int[] stragglers;
+
+    /**
+     * Создает оценщик для доски с указанными целевыми зонами. Стартовый лагерь каждой стороны -
+     * целевая зона противника.
+     *
+     * @param bitBoard     Битовая позиция, по размерам которой строятся таблицы.
+     * @param whitesTarget Маска целевой зоны белых.
+     * @param blacksTarget Маска целевой зоны черных.
+     */
+    public UgolkiEvaluator(BitBoard bitBoard, long whitesTarget, long blacksTarget) {
+        this(bitBoard, new long[] { whitesTarget }, new long[] { blacksTarget });
+    }
+
+    /**
+     * Создает оценщик для доски любого размера с целевыми зонами, заданными масками по словам
+     * (см. {@link BitBoard#getWordCount()}).
+     *
+     * @param bitBoard     Битовая позиция, по размерам которой строятся таблицы.
+     * @param whitesTarget Маска целевой зоны белых по словам.
+     * @param blacksTarget Маска целевой зоны черных по словам.
+     */
+    public UgolkiEvaluator(BitBoard bitBoard, long[] whitesTarget, long[] blacksTarget) {
+        int colors = Figure.Color.values().length;
+        this.distances = new int[colors][];
+        this.homeWords = new long[colors][];
+        this.inHome = new byte[colors][];
+        this.distanceSums = new int[colors];
+        this.stragglers = new int[colors];
+
+        distances[Figure.Color.WHITE.ordinal()] = createDistances(bitBoard, whitesTarget);
+        distances[Figure.Color.BLACK.ordinal()] = createDistances(bitBoard, blacksTarget);
+        homeWords[Figure.Color.WHITE.ordinal()] = blacksTarget.clone();
+        homeWords[Figure.Color.BLACK.ordinal()] = whitesTarget.clone();
+        for (int color = 0; color < colors; color++) {
+            inHome[color] = new byte[bitBoard.getSize()];
+            for (int square = 0; square < bitBoard.getSize(); square++) {
+                inHome[color][square] = (byte) (homeWords[color][BitBoard.word(square)] >>> square & 1);
+            }
+        }
+        reset(bitBoard);
+    }
+
+    /**
+     * Создает копию оценщика с теми же счетчиками. Таблицы расстояний разделяются с оригиналом.
+     *
+     * @param other Копируемый оценщик
+     */
+    public UgolkiEvaluator(UgolkiEvaluator other) {
+        this.distances = other.distances;
+        this.homeWords = other.homeWords;
+        this.inHome = other.inHome;
+        this.distanceSums = other.distanceSums.clone();
+        this.stragglers = other.stragglers.clone();
+    }
+
+    /**
+     * Пересчитывает счетчики по позиции полным перебором.
+     *
+     * @param bitBoard Позиция
+     */
+    public void reset(BitBoard bitBoard) {
+        for (Figure.Color color : Figure.Color.values()) {
+            distanceSums[color.ordinal()] = sumDistances(bitBoard, color);
+            stragglers[color.ordinal()] = countStragglers(bitBoard, color);
+        }
+    }
+
+    /**
+     * Обновляет счетчики после хода.
+     *
+     * @param color Цвет стороны, сделавшей ход
+     * @param move  Упакованный ход (см. {@link Move})
+     */
+    public void update(Figure.Color color, int move) {
+        shift(color, Move.from(move), Move.to(move));
+    }
+
+    /**
+     * Возвращает счетчики к состоянию до хода.
+     *
+     * @param color Цвет стороны, сделавшей отменяемый ход
+     * @param move  Упакованный ход
+     */
+    public void undo(Figure.Color color, int move) {
+        shift(color, Move.to(move), Move.from(move));
+    }
+
+    /**
+     * Оценка текущей позиции за O(1) по счетчикам.
+     *
+     * @param color Цвет стороны, для которой считается оценка
+     * @return Оценка позиции: чем больше, тем лучше для стороны
+     */
+    public int evaluate(Figure.Color color) {
+        int own = color.ordinal();
+        int opponent = 1 - own;
+        return DISTANCE_WEIGHT * (distanceSums[opponent] - distanceSums[own])
+                + STRAGGLER_WEIGHT * (stragglers[opponent] - stragglers[own]);
+    }
+
+    /**
+     * Эталонная оценка позиции полным перебором фигур без использования счетчиков.
+     *
+     * @param bitBoard Позиция
+     * @param color    Цвет стороны, для которой считается оценка
+     * @return Оценка позиции, совпадающая с {@link #evaluate(Figure.Color)} для той же позиции
+     */
+    public int evaluate(BitBoard bitBoard, Figure.Color color) {
+        Figure.Color opponent = color == Figure.Color.WHITE ? Figure.Color.BLACK : Figure.Color.WHITE;
+        return DISTANCE_WEIGHT * (sumDistances(bitBoard, opponent) - sumDistances(bitBoard, color))
+                + STRAGGLER_WEIGHT * (countStragglers(bitBoard, opponent) - countStragglers(bitBoard, color));
+    }
+
+    /**
+     * @param color Цвет фигур
+     * @return Суммарное расстояние фигур до дальнего угла целевой зоны
+     */
+    public int getDistanceSum(Figure.Color color) {
+        return distanceSums[color.ordinal()];
+    }
+
+    /**
+     * @param color Цвет фигур
+     * @return Количество фигур, оставшихся в стартовом лагере
+     */
+    public int getStragglers(Figure.Color color) {
+        return stragglers[color.ordinal()];
+    }
+
+    private void shift(Figure.Color color, int from, int to) {
+        int index = color.ordinal();
+        int[] distance = distances[index];
+        byte[] home = inHome[index];
+        distanceSums[index] += distance[to] - distance[from];
+        stragglers[index] += home[to] - home[from];
+    }
+
+    private int sumDistances(BitBoard bitBoard, Figure.Color color) {
+        int[] distance = distances[color.ordinal()];
+        int sum = 0;
+        for (int word = 0; word < bitBoard.getWordCount(); word++) {
+            long pieces = bitBoard.getWord(color, word);
+            while (pieces != 0) {
+                sum += distance[(word << 6) + Long.numberOfTrailingZeros(pieces)];
+                pieces &= pieces - 1;
+            }
+        }
+        return sum;
+    }
+
+    private int countStragglers(BitBoard bitBoard, Figure.Color color) {
+        return bitBoard.countPieces(color, homeWords[color.ordinal()]);
+    }
+
+    /**
+     * Таблица расстояний до угла доски, лежащего в целевой зоне. Если зона не содержит угол доски,
+     * расстояние считается до ее первой клетки.
+     */
+    private static int[] createDistances(BitBoard bitBoard, long[] target) {
+        int right = bitBoard.getWidth() - 1;
+        int bottom = bitBoard.getHeight() - 1;
+        int[] corners = {
+                bitBoard.index(0, 0), bitBoard.index(right, 0),
+                bitBoard.index(0, bottom), bitBoard.index(right, bottom)
+        };
+
+        int goal = -1;
+        for (int corner : corners) {
+            if ((target[BitBoard.word(corner)] & BitBoard.bit(corner)) != 0) {
+                goal = corner;
+                break;
+            }
+        }
+        for (int word = 0; goal < 0 && word < target.length; word++) {
+            if (target[word] != 0) {
+                goal = (word << 6) + Long.numberOfTrailingZeros(target[word]);
+            }
+        }
+        if (goal < 0) {
+            goal = 0;
+        }
+
+        int[] distance = new int[bitBoard.getSize()];
+        for (int square = 0; square < distance.length; square++) {
+            distance[square] = Math.abs(bitBoard.getX(square) - bitBoard.getX(goal))
+                    + Math.abs(bitBoard.getY(square) - bitBoard.getY(goal));
+        }
+        return distance;
+    }
+}
@@ -1,14 +1,24 @@
 package com.company.Game;
 
+import com.company.Log.EventLog;
+import com.company.Log.Level;
+import com.company.Metrics.Metrics;
 import com.company.Model.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Игра "Уголки" - это игра для двух игроков, обычно играемая на доске размером 8x8 клеток.
+ * Размер доски задается {@link Board}, размер лагерей - {@link UgolkiWinCriteria} (см. {@link GameVariant}).
  */
 public class UgolkiGame {
+    private static final int INITIAL_HISTORY = 256;
+    private static final int FIGHT_FLAG = 1;
+    private static final int STATUS_SHIFT = 1;
+    private static final int WINNER_SHIFT = 4;
+
     private Board board;
     private Player player1;
     private Player player2;
@@ -16,23 +26,196 @@ public class UgolkiGame {
     private WinCheckResponse lastGameStatus;
     private UgolkiPathChecker pathChecker;
     private UgolkiWinCriteria winCriteria;
+    private UgolkiEvaluator evaluator;
+    private WinCheckResponse.Status status = WinCheckResponse.Status.JUST_STARTED;
+    private Figure.Color winnerColor;
+    // Стек отмены ходов: признак последнего хода черных, статус и победитель до хода
+    private int[] history = new int[INITIAL_HISTORY];
+    private int historySize;
+    // Генератор для случайного назначения цветов
+    private RandomGenerator random;
+    // Цвет первого игрока или null, если цвета назначаются случайно
+    private Figure.Color player1Color;
+    // Начальная расстановка или null для стандартной расстановки CheckersParams
+    private BitBoard startPosition;
+    private Figure.Color startSideToMove = Figure.Color.WHITE;
+    private GameListener listener;
 
     public UgolkiGame(Board board, Player player1, Player player2,
                       UgolkiPathChecker pathChecker, UgolkiWinCriteria winCriteria) {
+        this(board, player1, player2, pathChecker, winCriteria, RandomGenerator.getDefault());
+    }
+
+    /**
+     * Создает игру с заданным генератором случайных чисел. Игры с одинаково инициализированными
+     * генераторами назначают игрокам одинаковые цвета.
+     *
+     * @param random Генератор для случайного назначения цветов, например, {@code new SplittableRandom(seed)}.
+     */
+    public UgolkiGame(Board board, Player player1, Player player2,
+                      UgolkiPathChecker pathChecker, UgolkiWinCriteria winCriteria, RandomGenerator random) {
         this.board = board;
         this.player1 = player1;
         this.player2 = player2;
         this.pathChecker = pathChecker;
         this.winCriteria = winCriteria;
+        this.random = random;
         initPlayers();
+        winCriteria.reset(board.getBitBoard());
+        evaluator = new UgolkiEvaluator(board.getBitBoard(),
+                winCriteria.getWinWords(board.getBitBoard(), Figure.Color.WHITE),
+                winCriteria.getWinWords(board.getBitBoard(), Figure.Color.BLACK));
+    }
+
+    /**
+     * Создает независимую копию игры с тем же состоянием, например, для перебора ходов в поиске.
+     * Игроки разделяются с оригиналом, доска и критерий победы копируются.
+     *
+     * @param other Копируемая игра
+     */
+    public UgolkiGame(UgolkiGame other) {
+        BitBoard source = other.board.getBitBoard();
+        this.board = new Board(source.getWidth(), source.getHeight());
+        this.board.getBitBoard().copyFrom(source);
+        this.player1 = other.player1;
+        this.player2 = other.player2;
+        this.activePlayer = other.activePlayer;
+        this.lastGameStatus = other.lastGameStatus;
+        this.pathChecker = new UgolkiPathChecker(board);
+        this.winCriteria = new UgolkiWinCriteria(other.winCriteria);
+        this.evaluator = new UgolkiEvaluator(other.evaluator);
+        this.status = other.status;
+        this.winnerColor = other.winnerColor;
+        this.random = other.random;
+        this.player1Color = other.player1Color;
+        this.startPosition = other.startPosition;
+        this.startSideToMove = other.startSideToMove;
     }
 
     public void startGame() {
         board.cleanCells();
-        initWhiteFigures();
-        initBlackFigures();
+        if (startPosition == null) {
+            initWhiteFigures();
+            initBlackFigures();
+        } else {
+            board.getBitBoard().copyFrom(startPosition);
+        }
         initPlayers();
+        if (startPosition != null) {
+            activePlayer = player1.getColor() == startSideToMove ? player1 : player2;
+        }
+        winCriteria.reset(board.getBitBoard());
+        evaluator.reset(board.getBitBoard());
+        historySize = 0;
+        status = WinCheckResponse.Status.JUST_STARTED;
+        winnerColor = null;
         lastGameStatus = new WinCheckResponse(WinCheckResponse.Status.JUST_STARTED);
+
+        if (listener != null) {
+            listener.gameStarted(this);
+        }
+    }
+
+    /**
+     * Устанавливает произвольную позицию вместо начальной расстановки. Цвета игроков сохраняются,
+     * ход передается игроку указанного цвета, история ходов и признак последнего хода черных сбрасываются.
+     *
+     * @param position   Расстановка фигур
+     * @param sideToMove Цвет стороны, которая делает ход
+     */
+    public void setPosition(BitBoard position, Figure.Color sideToMove) {
+        BitBoard bitBoard = board.getBitBoard();
+        bitBoard.copyFrom(position);
+        activePlayer = player1.getColor() == sideToMove ? player1 : player2;
+        winCriteria.reset(bitBoard);
+        evaluator.reset(bitBoard);
+        historySize = 0;
+        status = WinCheckResponse.Status.IN_PROGRESS;
+        winnerColor = null;
+        lastGameStatus = new WinCheckResponse(WinCheckResponse.Status.IN_PROGRESS);
+    }
+
+    /**
+     * Выполняет ход без проверки правил, вывода и создания объектов. Предназначен для перебора ходов
+     * в поиске: ход должен быть получен из {@link #generateMoves(int[], int)} для текущей позиции.
+     * Статус игры доступен через {@link #getCurrentStatus()}.
+     *
+     * @param move Упакованный ход (см. {@link Move}).
+     */
+    public void makeMove(int move) {
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, historySize * 2);
+        }
+
+        boolean lastChance = winCriteria.isFightForDeadHeat();
+        history[historySize++] = (lastChance ? FIGHT_FLAG : 0)
+                | status.ordinal() << STATUS_SHIFT
+                | (winnerColor == null ? 0 : winnerColor.ordinal() + 1) << WINNER_SHIFT;
+
+        Figure.Color color = activePlayer.getColor();
+        board.getBitBoard().movePiece(Move.from(move), Move.to(move));
+        status = winCriteria.update(color, move);
+        evaluator.update(color, move);
+        if (status == WinCheckResponse.Status.FINISHED) {
+            winnerColor = lastChance ? Figure.Color.WHITE : color;
+        }
+
+        changeActivePlayer();
+    }
+
+    /**
+     * Отменяет последний ход, выполненный {@link #makeMove(int)}, и точно восстанавливает состояние игры,
+     * включая признак последнего хода черных за ничью.
+     *
+     * @param move Упакованный ход, который нужно отменить.
+     */
+    public void unmakeMove(int move) {
+        int record = history[--historySize];
+
+        changeActivePlayer();
+        board.getBitBoard().movePiece(Move.to(move), Move.from(move));
+        winCriteria.undo(activePlayer.getColor(), move, (record & FIGHT_FLAG) != 0);
+        evaluator.undo(activePlayer.getColor(), move);
+        status = WinCheckResponse.Status.values()[record >>> STATUS_SHIFT & 0x7];
+        int winner = record >>> WINNER_SHIFT & 0x3;
+        winnerColor = winner == 0 ? null : Figure.Color.values()[winner - 1];
+    }
+
+    /**
+     * Заполняет буфер всеми допустимыми ходами активного игрока.
+     *
+     * @param moves  Буфер для упакованных ходов.
+     * @param offset Позиция в буфере, с которой записываются ходы.
+     * @return Количество записанных ходов.
+     */
+    public int generateMoves(int[] moves, int offset) {
+        return pathChecker.getMoveGenerator().generateMoves(activePlayer.getColor(), moves, offset);
+    }
+
+    /**
+     * Достаточный размер буфера для {@link #generateMoves(int[], int)} на доске и с лагерями этой игры.
+     * На доске 8x8 со стандартными лагерями равен {@link UgolkiMoveGenerator#MAX_MOVES}.
+     *
+     * @return Размер буфера ходов
+     */
+    public int getMaxMoves() {
+        return UgolkiMoveGenerator.maxMoves(board.getBitBoard().getSize(), winCriteria.getPieceCount());
+    }
+
+    /**
+     * Ключ Zobrist текущей позиции с учетом очереди хода и последнего хода черных за ничью.
+     *
+     * @return Ключ позиции
+     */
+    public long getPositionKey() {
+        long key = board.getBitBoard().getKey();
+        if (activePlayer.getColor() == Figure.Color.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        if (winCriteria.isFightForDeadHeat()) {
+            key ^= Zobrist.FIGHT_FOR_DEAD_HEAT;
+        }
+        return key;
     }
     /**
      * Выполняет ход игрока, перемещая фигуру с одной клетки на другую.
@@ -43,30 +226,89 @@ public class UgolkiGame {
      */
     public void move(String from, String to) throws IllegalArgumentException {
         // Получаем объект начальной и целевой клеток из доски.
-        Cell cellFrom = board.getCellAt(from);
-        Cell cellTo = board.getCellAt(to);
+        move(board.getCellAt(from), board.getCellAt(to));
+    }
 
-        try {
-            // Проверяем возможность выполнения хода с помощью проверки пути.
-            pathChecker.checkMovePossibility(activePlayer, cellFrom, cellTo);
+    /**
+     * Выполняет ход, упакованный в целое число (см. {@link Move}), например, выбранный компьютерным игроком.
+     *
+     * @param move Упакованный ход.
+     * @throws IllegalArgumentException Если ход недопустим из-за ошибки в игре.
+     */
+    public void move(int move) throws IllegalArgumentException {
+        BitBoard bitBoard = board.getBitBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        move(board.getCellAt(bitBoard.getX(from), bitBoard.getY(from)),
+                board.getCellAt(bitBoard.getX(to), bitBoard.getY(to)));
+    }
+
+    /**
+     * Упаковывает ход, заданный адресами клеток. Допустимость хода не проверяется.
+     *
+     * @param from Адрес начальной клетки, например, "B3".
+     * @param to   Адрес целевой клетки.
+     * @throws IllegalArgumentException Если адрес клетки не найден.
+     * @return Упакованный ход (см. {@link Move}).
+     */
+    public int parseMove(String from, String to) throws IllegalArgumentException {
+        return Move.of(board.getCellAt(from).getIndex(), board.getCellAt(to).getIndex());
+    }
 
-            // Перемещаем фигуру из начальной клетки в целевую и очищаем начальную клетку.
-            cellTo.setFigure(cellFrom.getFigure());
-            cellFrom.removeFigure();
+    /**
+     * Текстовая запись упакованного хода, например, "B3 B4".
+     *
+     * @param move Упакованный ход.
+     * @return Запись хода в формате команды консоли.
+     */
+    public String moveToString(int move) {
+        BitBoard bitBoard = board.getBitBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        return board.getCellAt(bitBoard.getX(from), bitBoard.getY(from)).getName() + " "
+                + board.getCellAt(bitBoard.getX(to), bitBoard.getY(to)).getName();
+    }
 
-            // Проверяем, не завершена ли игра в результате текущего хода.
-            lastGameStatus = winCriteria.checkForWinner(board, activePlayer);
+    private void move(Cell cellFrom, Cell cellTo) throws IllegalArgumentException {
+        if (cellFrom == null || cellTo == null) {
+            throw new IllegalArgumentException("Клетка за пределами доски.");
+        }
 
-            // Вычисляем оценку доски после этого хода
-            int boardScore = evaluation(board, activePlayer);
-            System.out.println("Текущая оценка: " + boardScore);
-            // Теперь у вас есть оценка доски после этого хода, и вы можете использовать ее, сохранить или анализировать ее.
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        try {
+            // Проверяем возможность выполнения хода с помощью проверки пути.
+            pathChecker.checkMovePossibility(activePlayer, cellFrom, cellTo);
+            Player mover = activePlayer;
+
+            // Перемещаем фигуру, проверяем, не завершена ли игра, и передаем ход другому игроку.
+            int move = Move.of(cellFrom.getIndex(), cellTo.getIndex());
+            makeMove(move);
+            lastGameStatus = new WinCheckResponse(status);
+            if (status == WinCheckResponse.Status.FINISHED) {
+                lastGameStatus.setWinner(winnerColor == player1.getColor() ? player1 : player2);
+            }
+            if (listener != null) {
+                listener.moveMade(this, move);
+            }
 
-            // Передаем ход другому игроку.
-            changeActivePlayer();
+            // Оценка доски после этого хода нужна только журналу, поэтому вычисляется, только если он ее выведет.
+            EventLog log = EventLog.getDefault();
+            if (log.isEnabled(Level.DEBUG)) {
+                log.log(Level.DEBUG, "game", "Текущая оценка", "score", evaluation(board, mover));
+            }
+            if (Metrics.ENABLED) {
+                Metrics.MOVES.increment();
+            }
         } catch (IllegalArgumentException e) {
+            if (Metrics.ENABLED) {
+                Metrics.ILLEGAL_MOVES.increment();
+            }
             // Если проверка пути выявила ошибку, выбрасываем исключение.
             throw new IllegalArgumentException(e.getMessage());
+        } finally {
+            if (Metrics.ENABLED) {
+                Metrics.MOVE.recordSince(start);
+            }
         }
     }
 
@@ -74,6 +316,26 @@ public class UgolkiGame {
         return lastGameStatus;
     }
 
+    /**
+     * Статус игры после последнего хода, выполненного {@link #move(String, String)} или {@link #makeMove(int)}.
+     *
+     * @return Статус игры
+     */
+    public WinCheckResponse.Status getCurrentStatus() {
+        return status;
+    }
+
+    /**
+     * @return Цвет победителя, если статус игры {@link WinCheckResponse.Status#FINISHED}, иначе {@code null}.
+     */
+    public Figure.Color getWinnerColor() {
+        return winnerColor;
+    }
+
+    public Figure.Color getActiveColor() {
+        return activePlayer.getColor();
+    }
+
     public Board getBoard() {
         return board;
     }
@@ -82,6 +344,70 @@ public class UgolkiGame {
         return activePlayer;
     }
 
+    public UgolkiWinCriteria getWinCriteria() {
+        return winCriteria;
+    }
+
+    public UgolkiEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Задает генератор для случайного назначения цветов при следующих вызовах {@link #startGame()}.
+     *
+     * @param random Генератор случайных чисел
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Задает цвет первого игрока вместо случайного назначения. Второй игрок получает другой цвет.
+     * Применяется при следующем вызове {@link #startGame()}.
+     *
+     * @param color Цвет первого игрока или {@code null}, чтобы назначать цвета случайно
+     */
+    public void setPlayer1Color(Figure.Color color) {
+        this.player1Color = color;
+    }
+
+    /**
+     * Задает начальную расстановку вместо стандартной расстановки {@link CheckersParams}. Применяется при
+     * следующем вызове {@link #startGame()}, позиция копируется.
+     *
+     * @param position   Начальная расстановка или {@code null} для стандартной
+     * @param sideToMove Цвет стороны, которая делает первый ход
+     */
+    public void setStartPosition(BitBoard position, Figure.Color sideToMove) {
+        this.startPosition = position == null ? null : new BitBoard(position);
+        this.startSideToMove = sideToMove;
+    }
+
+    /**
+     * @return Начальная расстановка, заданная {@link #setStartPosition}, или {@code null} для стандартной.
+     */
+    public BitBoard getStartPosition() {
+        return startPosition;
+    }
+
+    public Figure.Color getStartSideToMove() {
+        return startPosition == null ? Figure.Color.WHITE : startSideToMove;
+    }
+
+    /**
+     * Задает наблюдателя, которого игра уведомляет о начале партии и о ходах игроков. Копии игры
+     * наблюдателя не наследуют.
+     *
+     * @param listener Наблюдатель или {@code null}
+     */
+    public void setGameListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    public GameListener getGameListener() {
+        return listener;
+    }
+
     /**
      * Инициализирует игроков и назначает им цвета фигур.
      */
@@ -93,30 +419,35 @@ public class UgolkiGame {
     }
 
     /**
-     * Расставляет черные фигуры на начальные позиции.
+     * Расставляет черные фигуры на начальные позиции: в целевую зону белых.
      */
     private void initBlackFigures() {
-        for (Point point : CheckersParams.getWhitesStartPoints()) {
-            board.addFigure(new Figure(point, Figure.Color.BLACK), point);
-        }
+        placeFigures(winCriteria.getWinWords(board.getBitBoard(), Figure.Color.WHITE), Figure.Color.BLACK);
     }
 
     /**
-     * Расставляет белые фигуры на начальные позиции.
+     * Расставляет белые фигуры на начальные позиции: в целевую зону черных.
      */
     private void initWhiteFigures() {
-        for (Point point : CheckersParams.getBlacksStartPoints()) {
-            board.addFigure(new Figure(point, Figure.Color.WHITE), point);
+        placeFigures(winCriteria.getWinWords(board.getBitBoard(), Figure.Color.BLACK), Figure.Color.WHITE);
+    }
+
+    private void placeFigures(long[] camp, Figure.Color color) {
+        BitBoard bitBoard = board.getBitBoard();
+        for (int word = 0; word < camp.length; word++) {
+            for (long squares = camp[word]; squares != 0; squares &= squares - 1) {
+                bitBoard.set((word << 6) + Long.numberOfTrailingZeros(squares), color);
+            }
         }
     }
 
     /**
-     * Назначает случайным образом цвета фигур игрокам.
+     * Назначает цвета фигур игрокам: заданные явно или случайные.
      */
     private void assignFigureColors() {
-        Random random = new Random();
+        boolean player1White = player1Color == null ? random.nextBoolean() : player1Color == Figure.Color.WHITE;
 
-        if (random.nextBoolean()) {
+        if (player1White) {
             player1.setColor(Figure.Color.WHITE);
             player2.setColor(Figure.Color.BLACK);
         } else {
@@ -149,31 +480,31 @@ public class UgolkiGame {
         private static List<Point> blacksStartPoints = new ArrayList<Point>();
 
         static {
-            whitesStartPoints.add(new Point(0, 7));
-            whitesStartPoints.add(new Point(1, 7));
-            whitesStartPoints.add(new Point(2, 7));
-            whitesStartPoints.add(new Point(3, 7));
-            whitesStartPoints.add(new Point(0, 6));
-            whitesStartPoints.add(new Point(1, 6));
-            whitesStartPoints.add(new Point(2, 6));
-            whitesStartPoints.add(new Point(3, 6));
-            whitesStartPoints.add(new Point(0, 5));
-            whitesStartPoints.add(new Point(1, 5));
-            whitesStartPoints.add(new Point(2, 5));
-            whitesStartPoints.add(new Point(3, 5));
-
-            blacksStartPoints.add(new Point(4, 0));
-            blacksStartPoints.add(new Point(5, 0));
-            blacksStartPoints.add(new Point(6, 0));
-            blacksStartPoints.add(new Point(7, 0));
-            blacksStartPoints.add(new Point(4, 1));
-            blacksStartPoints.add(new Point(5, 1));
-            blacksStartPoints.add(new Point(6, 1));
-            blacksStartPoints.add(new Point(7, 1));
-            blacksStartPoints.add(new Point(4, 2));
-            blacksStartPoints.add(new Point(5, 2));
-            blacksStartPoints.add(new Point(6, 2));
-            blacksStartPoints.add(new Point(7, 2));
+            whitesStartPoints.add(Point.of(0, 7));
+            whitesStartPoints.add(Point.of(1, 7));
+            whitesStartPoints.add(Point.of(2, 7));
+            whitesStartPoints.add(Point.of(3, 7));
+            whitesStartPoints.add(Point.of(0, 6));
+            whitesStartPoints.add(Point.of(1, 6));
+            whitesStartPoints.add(Point.of(2, 6));
+            whitesStartPoints.add(Point.of(3, 6));
+            whitesStartPoints.add(Point.of(0, 5));
+            whitesStartPoints.add(Point.of(1, 5));
+            whitesStartPoints.add(Point.of(2, 5));
+            whitesStartPoints.add(Point.of(3, 5));
+
+            blacksStartPoints.add(Point.of(4, 0));
+            blacksStartPoints.add(Point.of(5, 0));
+            blacksStartPoints.add(Point.of(6, 0));
+            blacksStartPoints.add(Point.of(7, 0));
+            blacksStartPoints.add(Point.of(4, 1));
+            blacksStartPoints.add(Point.of(5, 1));
+            blacksStartPoints.add(Point.of(6, 1));
+            blacksStartPoints.add(Point.of(7, 1));
+            blacksStartPoints.add(Point.of(4, 2));
+            blacksStartPoints.add(Point.of(5, 2));
+            blacksStartPoints.add(Point.of(6, 2));
+            blacksStartPoints.add(Point.of(7, 2));
         }
 
         /**
@@ -193,48 +524,92 @@ public class UgolkiGame {
         public static List<Point> getBlacksStartPoints() {
             return blacksStartPoints;
         }
+
+        /**
+         * Возвращает начальные позиции белых фигур для доски и лагеря произвольного размера: прямоугольник
+         * у левого нижнего угла доски, как у стандартной расстановки.
+         *
+         * @param width      Ширина доски
+         * @param height     Высота доски
+         * @param campWidth  Ширина лагеря
+         * @param campHeight Высота лагеря
+         * @return Список точек с начальными позициями белых фигур.
+         */
+        public static List<Point> getWhitesStartPoints(int width, int height, int campWidth, int campHeight) {
+            List<Point> points = new ArrayList<Point>(campWidth * campHeight);
+            for (int y = height - 1; y >= height - campHeight; y--) {
+                for (int x = 0; x < campWidth; x++) {
+                    points.add(Point.of(x, y));
+                }
+            }
+            return points;
+        }
+
+        /**
+         * Возвращает начальные позиции черных фигур для доски и лагеря произвольного размера: прямоугольник
+         * у правого верхнего угла доски, симметричный лагерю белых.
+         *
+         * @param width      Ширина доски
+         * @param height     Высота доски
+         * @param campWidth  Ширина лагеря
+         * @param campHeight Высота лагеря
+         * @return Список точек с начальными позициями черных фигур.
+         */
+        public static List<Point> getBlacksStartPoints(int width, int height, int campWidth, int campHeight) {
+            List<Point> points = new ArrayList<Point>(campWidth * campHeight);
+            for (int y = 0; y < campHeight; y++) {
+                for (int x = width - campWidth; x < width; x++) {
+                    points.add(Point.of(x, y));
+                }
+            }
+            return points;
+        }
     }
 
     /**
+     * Оценка позиции полным пересчетом по доске.
+     *
      * @param board - Игровая доска
      * @param currentPlayer - Текущий игрок
-     * @return
+     * @return Оценка позиции с точки зрения текущего игрока
      */
     public int evaluation(Board board, Player currentPlayer) {
-        int score = 0;
-
-        // Оценка за количество захваченных углов
-        int currentPlayerCornerCount = countPlayerCorners(currentPlayer);
-        int opponentCornerCount = countPlayerCorners(getOpponent(currentPlayer));
-
-        score = currentPlayerCornerCount - opponentCornerCount;
-
-        // Оценка за количество фигур на доске
-        int currentPlayerPieceCount = countPlayerPieces(currentPlayer);
-        int opponentPieceCount = countPlayerPieces(getOpponent(currentPlayer));
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int score = evaluation(board.getBitBoard(), currentPlayer.getColor());
+        if (Metrics.ENABLED) {
+            Metrics.EVALUATION.recordSince(start);
+        }
+        return score;
+    }
 
-        score += (currentPlayerPieceCount - opponentPieceCount);
+    /**
+     * Оценка позиции с точки зрения стороны указанного цвета полным пересчетом по битовой позиции:
+     * насколько фигуры стороны ближе к целевой зоне, чем фигуры противника (см. {@link UgolkiEvaluator}).
+     *
+     * @param bitBoard Битовая позиция
+     * @param color    Цвет стороны, для которой считается оценка
+     * @return Оценка позиции
+     */
+    public int evaluation(BitBoard bitBoard, Figure.Color color) {
+        return evaluator.evaluate(bitBoard, color);
+    }
 
-        return score;
+    /**
+     * Оценка текущей позиции за O(1) по счетчикам, которые обновляются в {@link #makeMove(int)} и
+     * {@link #unmakeMove(int)}. Совпадает с {@link #evaluation(BitBoard, Figure.Color)} для текущей доски.
+     *
+     * @param color Цвет стороны, для которой считается оценка
+     * @return Оценка позиции
+     */
+    public int evaluation(Figure.Color color) {
+        return evaluator.evaluate(color);
     }
 
     /**
      * Метод для подсчета количества фигур игрока на доске
      */
     public int countPlayerPieces(Player player) {
-        int pieceCount = 0;
-        // Перебираем все клетки на доске
-        for (int x = 0; x < 8; x++) {
-            for (int y = 0; y < 8; y++) {
-                Cell cell = board.getCellAt(x, y);
-                // Если клетка не пуста и фигура на ней принадлежит текущему игроку
-                if (!cell.isEmpty() && cell.getFigure().getColor() == player.getColor()) {
-                    pieceCount++;
-                }
-            }
-        }
-
-        return pieceCount;
+        return board.getBitBoard().countPieces(player.getColor());
     }
     // Метод для определения противника текущего игрока
     public Player getOpponent(Player currentPlayer) {
@@ -250,31 +625,23 @@ public class UgolkiGame {
      * Метод для подсчета количества захваченных углов игроком
      */
     public int countPlayerCorners(Player player) {
-        int cornerCount = 0;
-
-        // Проверяем верхний левый угол
-        if (board.getCellAt(0, 0).getFigure() != null && board.getCellAt(0, 0).getFigure().getColor() == player.getColor()) {
-            cornerCount++;
-        }
-
-        // Проверяем верхний правый угол
-        if (board.getCellAt(0, 7).getFigure() != null && board.getCellAt(0, 7).getFigure().getColor() == player.getColor()) {
-            cornerCount++;
-        }
-
-        // Проверяем нижний левый угол
-        if (board.getCellAt(7, 0).getFigure() != null && board.getCellAt(7, 0).getFigure().getColor() == player.getColor()) {
-            cornerCount++;
-        }
+        return countCorners(board.getBitBoard(), player.getColor());
+    }
 
-        // Проверяем нижний правый угол
-        if (board.getCellAt(7, 7).getFigure() != null && board.getCellAt(7, 7).getFigure().getColor() == player.getColor()) {
-            cornerCount++;
+    private int countCorners(BitBoard bitBoard, Figure.Color color) {
+        int right = bitBoard.getWidth() - 1;
+        int bottom = bitBoard.getHeight() - 1;
+        int[] corners = {
+                bitBoard.index(0, 0), bitBoard.index(right, 0),
+                bitBoard.index(0, bottom), bitBoard.index(right, bottom)
+        };
+
+        int count = 0;
+        for (int corner : corners) {
+            if (bitBoard.getColor(corner) == color) {
+                count++;
+            }
         }
-
-        return cornerCount;
+        return count;
     }
-
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+package com.company.Game;
+
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+
+import java.util.Arrays;
+
+/**
+ * Генератор всех допустимых ходов стороны в игре уголки.
+ *
+ * Фигура может шагнуть на любую пустую соседнюю клетку либо выполнить серию прыжков через занятые
+ * соседние клетки на пустые клетки за ними. Клетки приземления обходятся волной по битовой маске
+ * посещенных клеток, которая переиспользуется между вызовами, поэтому генерация не выделяет память.
+ * На досках до 64 клеток вся волна укладывается в одно слово; на больших досках маски хранятся по
+ * словам (см. {@link BitBoard#getWordCount()}), а волна обходится через стек клеток.
+ * Экземпляр не потокобезопасен: каждому потоку поиска нужен свой генератор.
+ */
+public class UgolkiMoveGenerator {
+    /**
+     * Достаточный размер буфера ходов для одной стороны на доске 8x8: 12 фигур по 64 клетки.
+     * Для других досок см. {@link #maxMoves(int, int)}.
+     */
+    public static final int MAX_MOVES = 12 * 64;
+
+    private final BitBoard bitBoard;
+    private final boolean singleWord;
+    private long visited;
+    // Маски и стек волны для досок больше 64 клеток
+    private final long[] destinations;
+    private final int[] stack;
+
+    /**
+     * Создает генератор для указанной позиции.
+     *
+     * @param bitBoard Позиция, для которой генерируются ходы.
+     */
+    public UgolkiMoveGenerator(BitBoard bitBoard) {
+        this.bitBoard = bitBoard;
+        this.singleWord = bitBoard.getWordCount() == 1;
+        this.destinations = singleWord ? null : new long[bitBoard.getWordCount()];
+        this.stack = singleWord ? null : new int[bitBoard.getSize()];
+    }
+
+    /**
+     * Достаточный размер буфера ходов для одной стороны: каждая фигура может пойти не более чем на
+     * каждую клетку доски.
+     *
+     * @param squares Количество клеток доски.
+     * @param pieces  Количество фигур одной стороны.
+     * @return Размер буфера ходов.
+     */
+    public static int maxMoves(int squares, int pieces) {
+        return squares * pieces;
+    }
+
+    public BitBoard getBitBoard() {
+        return bitBoard;
+    }
+
+    /**
+     * Заполняет буфер всеми допустимыми ходами фигур указанного цвета.
+     *
+     * @param color Цвет стороны, делающей ход.
+     * @param moves Буфер для упакованных ходов (см. {@link Move}).
+     * @return Количество записанных ходов.
+     */
+    public int generateMoves(Figure.Color color, int[] moves) {
+        return generateMoves(color, moves, 0);
+    }
+
+    /**
+     * Заполняет буфер всеми допустимыми ходами фигур указанного цвета, начиная с позиции {@code offset}.
+     *
+     * @param color  Цвет стороны, делающей ход.
+     * @param moves  Буфер для упакованных ходов (см. {@link Move}).
+     * @param offset Позиция в буфере, с которой записываются ходы.
+     * @return Количество записанных ходов.
+     */
+    public int generateMoves(Figure.Color color, int[] moves, int offset) {
+        if (!singleWord) {
+            return generateWideMoves(color, moves, offset);
+        }
+
+        int count = offset;
+        long pieces = bitBoard.getMask(color);
+
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            long destinations = getDestinations(from);
+            while (destinations != 0) {
+                moves[count++] = Move.of(from, Long.numberOfTrailingZeros(destinations));
+                destinations &= destinations - 1;
+            }
+        }
+
+        return count - offset;
+    }
+
+    /**
+     * Возвращает маску всех клеток, куда может переместиться фигура с клетки {@code from}.
+     * Исходная клетка на время хода считается освободившейся. Только для досок до 64 клеток.
+     *
+     * @param from Индекс клетки с фигурой.
+     * @return Маска клеток назначения.
+     */
+    public long getDestinations(int from) {
+        long start = BitBoard.bit(from);
+        long occupied = bitBoard.getOccupied() & ~start;
+        long steps = bitBoard.getNeighbourMask(from) & ~occupied;
+
+        visited = start;
+        long frontier = start;
+        while (frontier != 0) {
+            int square = Long.numberOfTrailingZeros(frontier);
+            frontier &= frontier - 1;
+
+            for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+                int target = bitBoard.getJumpTarget(square, direction);
+                if (target < 0) {
+                    continue;
+                }
+
+                long targetBit = BitBoard.bit(target);
+                if ((occupied & BitBoard.bit(bitBoard.getNeighbour(square, direction))) != 0
+                        && ((occupied | visited) & targetBit) == 0) {
+                    visited |= targetBit;
+                    frontier |= targetBit;
+                }
+            }
+        }
+
+        return (steps | visited) & ~start;
+    }
+
+    /**
+     * Заполняет маску по словам всеми клетками, куда может переместиться фигура с клетки {@code from}.
+     * Работает на доске любого размера. Исходная клетка на время хода считается освободившейся.
+     *
+     * @param from Индекс клетки с фигурой.
+     * @param out  Маска из {@link BitBoard#getWordCount()} слов для клеток назначения.
+     */
+    public void getDestinations(int from, long[] out) {
+        if (singleWord) {
+            out[0] = getDestinations(from);
+            return;
+        }
+
+        Arrays.fill(out, 0);
+        int fromWord = BitBoard.word(from);
+        long fromBit = BitBoard.bit(from);
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            int neighbour = bitBoard.getNeighbour(from, direction);
+            if (neighbour >= 0 && bitBoard.isEmpty(neighbour)) {
+                out[BitBoard.word(neighbour)] |= BitBoard.bit(neighbour);
+            }
+        }
+
+        // Клетки шага и прыжка от одной клетки всегда разной четности суммы координат, поэтому маска
+        // назначения одновременно служит множеством посещенных клеток прыжков.
+        out[fromWord] |= fromBit;
+        int top = 0;
+        stack[top++] = from;
+        while (top > 0) {
+            int square = stack[--top];
+            for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+                int target = bitBoard.getJumpTarget(square, direction);
+                if (target < 0) {
+                    continue;
+                }
+
+                int over = bitBoard.getNeighbour(square, direction);
+                int targetWord = BitBoard.word(target);
+                long targetBit = BitBoard.bit(target);
+                if (over != from && !bitBoard.isEmpty(over)
+                        && (out[targetWord] & targetBit) == 0
+                        && (target == from || bitBoard.isEmpty(target))) {
+                    out[targetWord] |= targetBit;
+                    stack[top++] = target;
+                }
+            }
+        }
+        out[fromWord] &= ~fromBit;
+    }
+
+    private int generateWideMoves(Figure.Color color, int[] moves, int offset) {
+        int count = offset;
+        int words = bitBoard.getWordCount();
+        for (int word = 0; word < words; word++) {
+            long pieces = bitBoard.getWord(color, word);
+            while (pieces != 0) {
+                int from = (word << 6) + Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+
+                getDestinations(from, destinations);
+                for (int targetWord = 0; targetWord < words; targetWord++) {
+                    long targets = destinations[targetWord];
+                    while (targets != 0) {
+                        moves[count++] = Move.of(from, (targetWord << 6) + Long.numberOfTrailingZeros(targets));
+                        targets &= targets - 1;
+                    }
+                }
+            }
+        }
+        return count - offset;
+    }
+}
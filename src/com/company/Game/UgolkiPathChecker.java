@@ -1,16 +1,19 @@
 package com.company.Game;
 
+import com.company.Metrics.Metrics;
+import com.company.Model.BitBoard;
 import com.company.Model.Board;
 import com.company.Model.Cell;
 import com.company.Model.Player;
-import java.util.ArrayList;
-import java.util.List;
 /**
  * Класс, ответственный за проверку возможности перемещения фигур в игре уголки.
  */
 public class UgolkiPathChecker {
 
     private Board board;
+    private UgolkiMoveGenerator moveGenerator;
+    // Маска клеток назначения по словам для проверки хода
+    private final long[] destinations;
 
     /**
      * Создает экземпляр класса UgolkiPathChecker.
@@ -19,6 +22,8 @@ public class UgolkiPathChecker {
      */
     public UgolkiPathChecker(Board board) {
         this.board = board;
+        this.moveGenerator = new UgolkiMoveGenerator(board.getBitBoard());
+        this.destinations = new long[board.getBitBoard().getWordCount()];
     }
 
     /**
@@ -30,22 +35,25 @@ public class UgolkiPathChecker {
      * @throws IllegalArgumentException В случае невозможности выполнения хода выбрасывается исключение.
      */
     public void checkMovePossibility(Player player, Cell from, Cell to) throws IllegalArgumentException {
-        quickCheck(player, from, to);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        try {
+            quickCheck(player, from, to);
 
-        List<Cell> neighbourCells = board.getNeighbourCells(from);
-        List<Cell> possibleMoves = new ArrayList<Cell>();
+            moveGenerator.getDestinations(from.getIndex(), destinations);
 
-        for (Cell cell : neighbourCells) {
-            if (!cell.isEmpty()) {
-                tryJumpOver(possibleMoves, new ArrayList<Cell>(), from, cell);
-            } else {
-                possibleMoves.add(cell);
+            int target = to.getIndex();
+            if ((destinations[BitBoard.word(target)] & BitBoard.bit(target)) == 0) {
+                throw new IllegalArgumentException("Нельзя переместить вашу фигуру туда!");
+            }
+        } finally {
+            if (Metrics.ENABLED) {
+                Metrics.CHECK_MOVE_POSSIBILITY.recordSince(start);
             }
         }
+    }
 
-        if (!possibleMoves.contains(to)) {
-            throw new IllegalArgumentException("Нельзя переместить вашу фигуру туда!");
-        }
+    public UgolkiMoveGenerator getMoveGenerator() {
+        return moveGenerator;
     }
 
     /**
@@ -69,41 +77,4 @@ public class UgolkiPathChecker {
             throw new IllegalArgumentException("Вы не можете перемещать фигуры противника!");
         }
     }
-
-    /**
-     * Попытка перепрыгнуть через фигуры и добавление клеток, через которые можно прыгнуть, в список `possibleMoves`.
-     *
-     * @param possibleMoves Список клеток, куда можно переместить фигуру.
-     * @param jumpedOver    Список клеток, через которые уже было выполнено перепрыгивание.
-     * @param from          Исходная клетка, откуда начинается попытка перепрыгнуть через фигуры.
-     * @param takenCell     Клетка, через которую выполняется перепрыгивание.
-     */
-    private void tryJumpOver(List<Cell> possibleMoves, List<Cell> jumpedOver, Cell from, Cell takenCell) {
-        Cell cellToJump = getCellToJump(from, takenCell);
-
-        if (cellToJump != null && cellToJump.isEmpty()) {
-            List<Cell> neighbourCells = board.getNeighbourCells(cellToJump);
-            possibleMoves.add(cellToJump);
-            jumpedOver.add(takenCell);
-
-            for (Cell cell : neighbourCells) {
-                if (!cell.isEmpty() && !jumpedOver.contains(cell)) {
-                    tryJumpOver(possibleMoves, jumpedOver, cellToJump, cell);
-                }
-            }
-        }
-    }
-
-    /**
-     * Определение клетки, через которую можно выполнить перепрыгивание фигуры.
-     *
-     * @param from   Исходная клетка, откуда начинается перепрыгивание.
-     * @param over   Клетка, через которую нужно перепрыгнуть.
-     * @return Клетка, через которую можно перепрыгнуть, или `null`, если невозможно.
-     */
-    private Cell getCellToJump(Cell from, Cell over) {
-        int newX = over.getX() + (over.getX() - from.getX());
-        int newY = over.getY() + (over.getY() - from.getY());
-        return board.getCellAt(newX, newY);
-    }
 }
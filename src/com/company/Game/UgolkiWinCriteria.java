@@ -1,17 +1,71 @@
 package com.company.Game;
 
+import com.company.Metrics.Metrics;
+import com.company.Model.BitBoard;
 import com.company.Model.Board;
 import com.company.Model.Figure;
 import com.company.Model.Player;
-import com.company.Model.Point;
-import java.util.List;
 
 public class UgolkiWinCriteria{
-    private List<Point> blacksWinPoints = UgolkiGame.CheckersParams.getWhitesStartPoints();
-    private List<Point> whitesWinPoints = UgolkiGame.CheckersParams.getBlacksStartPoints();
+    /**
+     * Ширина лагеря стандартной расстановки.
+     */
+    public static final int STANDARD_CAMP_WIDTH = 4;
+    /**
+     * Высота лагеря стандартной расстановки.
+     */
+    public static final int STANDARD_CAMP_HEIGHT = 3;
+
+    private final int campWidth;
+    private final int campHeight;
+    // Белые фигуры расставляются на getBlacksStartPoints(), поэтому их цель - клетки getWhitesStartPoints(), и наоборот.
+    // Маски по словам и признаки целевой клетки по индексу клетки, индекс цвета - Figure.Color.ordinal().
+    // Рассчитываются по размерам доски при первом обращении и дальше не меняются.
+    private long[][] winWords;
+    private byte[][] inTarget;
+    // Количество фигур каждого цвета в своей целевой зоне, индекс - Figure.Color.ordinal()
+    private final int[] piecesInTarget = new int[Figure.Color.values().length];
+    private final int[] targetSize = new int[Figure.Color.values().length];
     private Player whitesPlayer;
     private boolean fightForDeadHeat = false;
 
+    /**
+     * Создает критерий победы со стандартным лагерем 4x3.
+     */
+    public UgolkiWinCriteria() {
+        this(STANDARD_CAMP_WIDTH, STANDARD_CAMP_HEIGHT);
+    }
+
+    /**
+     * Создает критерий победы с лагерями указанного размера в противоположных углах доски.
+     *
+     * @param campWidth  Ширина лагеря
+     * @param campHeight Высота лагеря
+     */
+    public UgolkiWinCriteria(int campWidth, int campHeight) {
+        if (campWidth <= 0 || campHeight <= 0) {
+            throw new IllegalArgumentException("Недопустимый размер лагеря: " + campWidth + "x" + campHeight);
+        }
+        this.campWidth = campWidth;
+        this.campHeight = campHeight;
+    }
+
+    /**
+     * Создает копию критерия победы с тем же состоянием игры.
+     *
+     * @param other Копируемый критерий
+     */
+    public UgolkiWinCriteria(UgolkiWinCriteria other) {
+        this.campWidth = other.campWidth;
+        this.campHeight = other.campHeight;
+        this.winWords = other.winWords;
+        this.inTarget = other.inTarget;
+        System.arraycopy(other.piecesInTarget, 0, piecesInTarget, 0, piecesInTarget.length);
+        System.arraycopy(other.targetSize, 0, targetSize, 0, targetSize.length);
+        this.whitesPlayer = other.whitesPlayer;
+        this.fightForDeadHeat = other.fightForDeadHeat;
+    }
+
     /**
      * Проверяет статус игры. Если все черные фигуры находятся на позициях старта для белых фигур,
      * активный игрок выигрывает. Однако, если все белые фигуры находятся на позициях старта для черных фигур,
@@ -24,36 +78,197 @@ public class UgolkiWinCriteria{
      * @return Ответ о статусе игры, содержащий статус игры
      */
     public WinCheckResponse checkForWinner(Board board, Player activePlayer) {
-        List<Point> playerFiguresPoints = board.getFiguresPoints(activePlayer.getColor());
-        List<Point> winPositions = getWinPositions(activePlayer);
-        WinCheckResponse response = new WinCheckResponse(WinCheckResponse.Status.IN_PROGRESS);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        boolean lastChance = fightForDeadHeat;
+        WinCheckResponse response = new WinCheckResponse(update(board.getBitBoard(), activePlayer.getColor()));
 
-        if (activePlayer.getColor() == Figure.Color.BLACK) {
-            if (fightForDeadHeat) {
-                if (playerFiguresPoints.containsAll(winPositions)) {
-                    response.setStatus(WinCheckResponse.Status.DEAD_HEAT);
-                } else {
-                    response.setStatus(WinCheckResponse.Status.FINISHED);
-                    response.setWinner(whitesPlayer);
-                }
-            } else {
-                if (playerFiguresPoints.containsAll(winPositions)) {
-                    response.setStatus(WinCheckResponse.Status.FINISHED);
-                    response.setWinner(activePlayer);
-                }
-            }
-        } else {
-            if (playerFiguresPoints.containsAll(winPositions)) {
-                whitesPlayer = activePlayer;
-                fightForDeadHeat = true;
-            }
+        if (activePlayer.getColor() == Figure.Color.WHITE && fightForDeadHeat) {
+            whitesPlayer = activePlayer;
+        }
+        if (response.getStatus() == WinCheckResponse.Status.FINISHED) {
+            response.setWinner(lastChance ? whitesPlayer : activePlayer);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.CHECK_FOR_WINNER.recordSince(start);
         }
 
         return response;
     }
 
-    private List<Point> getWinPositions(Player activePlayer) {
-        return activePlayer.getColor() == Figure.Color.WHITE
-                ? whitesWinPoints : blacksWinPoints;
+    /**
+     * Проверяет статус игры после хода стороны указанного цвета по тем же правилам, что и
+     * {@link #checkForWinner(Board, Player)}, но без создания объектов. Счетчик фигур в целевой зоне
+     * пересчитывается по позиции. Победителем в статусе {@link WinCheckResponse.Status#FINISHED}
+     * считаются белые, если черные делали последний ход за ничью, и черные в остальных случаях.
+     *
+     * @param bitBoard Битовая позиция после хода
+     * @param color    Цвет стороны, сделавшей ход
+     * @return Статус игры
+     */
+    public WinCheckResponse.Status update(BitBoard bitBoard, Figure.Color color) {
+        piecesInTarget[color.ordinal()] = bitBoard.countPieces(color, getTargetWords(bitBoard)[color.ordinal()]);
+        return decide(color);
+    }
+
+    /**
+     * Обновляет счетчик фигур в целевой зоне по сделанному ходу за O(1) и проверяет статус игры.
+     * Счетчики должны быть предварительно рассчитаны методом {@link #reset(BitBoard)}.
+     *
+     * @param color Цвет стороны, сделавшей ход
+     * @param move  Упакованный ход (см. {@link Move})
+     * @return Статус игры
+     */
+    public WinCheckResponse.Status update(Figure.Color color, int move) {
+        byte[] target = inTarget[color.ordinal()];
+        piecesInTarget[color.ordinal()] += target[Move.to(move)] - target[Move.from(move)];
+        return decide(color);
+    }
+
+    /**
+     * Отменяет ход: возвращает счетчик фигур в целевой зоне и признак последнего хода черных.
+     *
+     * @param color            Цвет стороны, сделавшей отменяемый ход
+     * @param move             Упакованный ход
+     * @param fightForDeadHeat Значение признака до хода
+     */
+    public void undo(Figure.Color color, int move, boolean fightForDeadHeat) {
+        byte[] target = inTarget[color.ordinal()];
+        piecesInTarget[color.ordinal()] -= target[Move.to(move)] - target[Move.from(move)];
+        this.fightForDeadHeat = fightForDeadHeat;
+    }
+
+    /**
+     * Сбрасывает состояние перед новой игрой и пересчитывает фигуры в целевых зонах.
+     *
+     * @param bitBoard Начальная позиция
+     */
+    public void reset(BitBoard bitBoard) {
+        fightForDeadHeat = false;
+        whitesPlayer = null;
+        long[][] words = getTargetWords(bitBoard);
+        for (Figure.Color color : Figure.Color.values()) {
+            piecesInTarget[color.ordinal()] = bitBoard.countPieces(color, words[color.ordinal()]);
+        }
+    }
+
+    /**
+     * @param color Цвет фигур
+     * @return Количество фигур указанного цвета в своей целевой зоне
+     */
+    public int getPiecesInTarget(Figure.Color color) {
+        return piecesInTarget[color.ordinal()];
+    }
+
+    /**
+     * Черные получают последний ход для ничьей, так как белые уже заняли все целевые клетки.
+     *
+     * @return Признак последнего хода черных
+     */
+    public boolean isFightForDeadHeat() {
+        return fightForDeadHeat;
+    }
+
+    public int getCampWidth() {
+        return campWidth;
+    }
+
+    public int getCampHeight() {
+        return campHeight;
+    }
+
+    /**
+     * @return Количество фигур каждой стороны: размер лагеря
+     */
+    public int getPieceCount() {
+        return campWidth * campHeight;
+    }
+
+    /**
+     * Маска целевых клеток одним словом, которые должны занять фигуры указанного цвета для победы.
+     *
+     * @param bitBoard Битовая позиция доски
+     * @param color    Цвет фигур
+     * @return Маска целевых клеток
+     * @throws IllegalStateException Если на доске больше 64 клеток, см. {@link #getWinWords}.
+     */
+    public long getWinMask(BitBoard bitBoard, Figure.Color color) {
+        if (bitBoard.getWordCount() != 1) {
+            throw new IllegalStateException("Маска одним словом недоступна для доски "
+                    + bitBoard.getWidth() + "x" + bitBoard.getHeight());
+        }
+        return getTargetWords(bitBoard)[color.ordinal()][0];
+    }
+
+    /**
+     * Маска целевых клеток по словам (см. {@link BitBoard#getWordCount()}), которые должны занять
+     * фигуры указанного цвета для победы.
+     *
+     * @param bitBoard Битовая позиция доски
+     * @param color    Цвет фигур
+     * @return Копия маски целевых клеток
+     */
+    public long[] getWinWords(BitBoard bitBoard, Figure.Color color) {
+        return getTargetWords(bitBoard)[color.ordinal()].clone();
+    }
+
+    private long[][] getTargetWords(BitBoard bitBoard) {
+        if (winWords == null) {
+            createTargets(bitBoard);
+        }
+        return winWords;
+    }
+
+    /**
+     * Проверяет, что лагеря помещаются на доску и не пересекаются.
+     *
+     * @throws IllegalArgumentException Если лагеря не помещаются или пересекаются.
+     */
+    static void checkCamp(int width, int height, int campWidth, int campHeight) throws IllegalArgumentException {
+        if (campWidth > width || campHeight > height
+                || (2 * campWidth > width && 2 * campHeight > height)) {
+            throw new IllegalArgumentException("Лагерь " + campWidth + "x" + campHeight
+                    + " не помещается на доску " + width + "x" + height);
+        }
+    }
+
+    private void createTargets(BitBoard bitBoard) {
+        int width = bitBoard.getWidth();
+        int height = bitBoard.getHeight();
+        checkCamp(width, height, campWidth, campHeight);
+
+        long[][] words = new long[Figure.Color.values().length][];
+        byte[][] target = new byte[Figure.Color.values().length][bitBoard.getSize()];
+        words[Figure.Color.WHITE.ordinal()] = bitBoard.wordsOf(
+                UgolkiGame.CheckersParams.getWhitesStartPoints(width, height, campWidth, campHeight));
+        words[Figure.Color.BLACK.ordinal()] = bitBoard.wordsOf(
+                UgolkiGame.CheckersParams.getBlacksStartPoints(width, height, campWidth, campHeight));
+        for (Figure.Color color : Figure.Color.values()) {
+            long[] mask = words[color.ordinal()];
+            for (int square = 0; square < bitBoard.getSize(); square++) {
+                target[color.ordinal()][square] = (byte) (mask[BitBoard.word(square)] >>> square & 1);
+            }
+            targetSize[color.ordinal()] = campWidth * campHeight;
+        }
+        this.inTarget = target;
+        this.winWords = words;
+    }
+
+    /**
+     * Решение о статусе игры по счетчику фигур в целевой зоне стороны, сделавшей ход.
+     */
+    private WinCheckResponse.Status decide(Figure.Color color) {
+        boolean allInPlace = piecesInTarget[color.ordinal()] == targetSize[color.ordinal()];
+
+        if (color == Figure.Color.BLACK) {
+            if (fightForDeadHeat) {
+                return allInPlace ? WinCheckResponse.Status.DEAD_HEAT : WinCheckResponse.Status.FINISHED;
+            }
+            return allInPlace ? WinCheckResponse.Status.FINISHED : WinCheckResponse.Status.IN_PROGRESS;
+        }
+
+        if (allInPlace) {
+            fightForDeadHeat = true;
+        }
+        return WinCheckResponse.Status.IN_PROGRESS;
     }
 }
@@ -0,0 +1,307 @@
+package com.company.Log;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный журнал событий игры с уровнями.
+ *
+ * Поток, записывающий событие, не выполняет ввод-вывод и не берет блокировок: событие копируется в
+ * ячейку кольцевого буфера фиксированного размера, а строку формирует и выводит фоновый поток-демон,
+ * который выбирает события пачками. Ячейки буфера занимаются сравнением с обменом по номеру позиции,
+ * у каждой ячейки есть свой номер последовательности (очередь Вьюкова), поэтому писать могут любые
+ * потоки одновременно. Если буфер заполнен, событие отбрасывается, а количество отброшенных событий
+ * попадает в журнал при следующем выводе. Событие с уровнем ниже текущего отсекается одним сравнением,
+ * и вызывающий код может не формировать текст сообщения, проверив {@link #isEnabled(Level)}.
+ *
+ * Событие состоит из времени, уровня, имени потока, источника, сообщения и необязательного числового
+ * поля, например:
+ * <pre>
+ * 2026-10-18 12:34:56.789 DEBUG [main] game: Текущая оценка score=43
+ * </pre>
+ *
+ * Журнал по умолчанию ({@link #getDefault()}) настраивается свойствами JVM:
+ * <ul>
+ *     <li>{@code ugolki.log.level} - уровень, по умолчанию {@code INFO};</li>
+ *     <li>{@code ugolki.log.buffer} - размер буфера в событиях, по умолчанию {@value #DEFAULT_CAPACITY};</li>
+ *     <li>{@code ugolki.log.file} - файл, в конец которого дописывается журнал, по умолчанию стандартный вывод.</li>
+ * </ul>
+ */
+public final class EventLog {
+    public static final String LEVEL_PROPERTY = "ugolki.log.level";
+    public static final String BUFFER_PROPERTY = "ugolki.log.buffer";
+    public static final String FILE_PROPERTY = "ugolki.log.file";
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int MAX_CAPACITY = 1 << 20;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SHUTDOWN_FLUSH_MILLIS = 1000;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final Slot[] slots;
+    // Номер последовательности ячейки: позиция, если ячейка свободна для записи, позиция + 1, если
+    // событие записано и ждет вывода.
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final PrintStream out;
+    private volatile Level level;
+    private volatile Thread writer;
+    private volatile boolean sleeping;
+    private volatile long written;
+    // Поля ниже используются только потоком вывода.
+    private long head;
+    private long reportedDrops;
+
+    /**
+     * @param level    Уровень журнала
+     * @param capacity Размер буфера в событиях, округляется вверх до степени двойки.
+     * @param out      Поток вывода; выводит в него только фоновый поток журнала.
+     */
+    public EventLog(Level level, int capacity, PrintStream out) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Недопустимый размер буфера журнала: " + capacity);
+        }
+
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.level = level;
+        this.out = out;
+    }
+
+    /**
+     * Общий журнал, настроенный свойствами JVM (см. описание класса).
+     */
+    public static EventLog getDefault() {
+        return Default.INSTANCE;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Меняет уровень журнала. Действует на события, записываемые после вызова.
+     */
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return Количество событий, отброшенных из-за переполнения буфера.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return {@code true}, если события этого уровня попадают в журнал.
+     */
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && level.compareTo(this.level) >= 0;
+    }
+
+    public void log(Level level, String source, String message) {
+        log(level, source, message, null, 0);
+    }
+
+    /**
+     * Записывает событие с числовым полем.
+     *
+     * @param level   Уровень события
+     * @param source  Источник, например, "game" или "gui"
+     * @param message Сообщение
+     * @param key     Имя поля или {@code null}, если поля нет
+     * @param value   Значение поля
+     */
+    public void log(Level level, String source, String message, String key, long value) {
+        if (!isEnabled(level)) {
+            return;
+        }
+
+        long position;
+        while (true) {
+            position = tail.get();
+            long sequence = sequences.getAcquire((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                // Ячейка с прошлого круга еще не выведена: буфер заполнен.
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+
+        int index = (int) position & mask;
+        Slot slot = slots[index];
+        slot.time = System.currentTimeMillis();
+        slot.level = level;
+        slot.thread = Thread.currentThread().getName();
+        slot.source = source;
+        slot.message = message;
+        slot.key = key;
+        slot.value = value;
+        // Запись с полным барьером: после нее чтение флага sleeping не переупорядочивается, и поток
+        // вывода, уснувший после своей последней проверки буфера, будет разбужен.
+        sequences.set(index, position + 1);
+
+        if (!started.get() && started.compareAndSet(false, true)) {
+            start();
+        }
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Ждет, пока будут выведены события, записанные до вызова.
+     *
+     * @param timeoutMillis Наибольшее время ожидания
+     * @return {@code true}, если все события выведены за отведенное время.
+     */
+    public boolean flush(long timeoutMillis) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written < target) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FLUSH_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private void start() {
+        Thread thread = new Thread(this::drain, "event-log");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(SHUTDOWN_FLUSH_MILLIS), "event-log-flush"));
+    }
+
+    private void drain() {
+        StringBuilder batch = new StringBuilder();
+        while (true) {
+            int count = 0;
+            while (count < BATCH_SIZE && poll(batch)) {
+                count++;
+            }
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                format(batch, System.currentTimeMillis(), Level.WARN, Thread.currentThread().getName(), "log",
+                        "Отброшено событий из-за переполнения буфера", "count", drops - reportedDrops);
+                reportedDrops = drops;
+            }
+
+            if (batch.length() > 0) {
+                out.print(batch);
+                out.flush();
+                batch.setLength(0);
+                written = head;
+                continue;
+            }
+
+            sleeping = true;
+            if (sequences.getAcquire((int) head & mask) != head + 1) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            sleeping = false;
+        }
+    }
+
+    /**
+     * Выбирает следующее событие, если оно уже записано, и освобождает его ячейку.
+     */
+    private boolean poll(StringBuilder batch) {
+        int index = (int) head & mask;
+        if (sequences.getAcquire(index) != head + 1) {
+            return false;
+        }
+
+        Slot slot = slots[index];
+        format(batch, slot.time, slot.level, slot.thread, slot.source, slot.message, slot.key, slot.value);
+        slot.thread = null;
+        slot.source = null;
+        slot.message = null;
+        slot.key = null;
+        sequences.setRelease(index, head + slots.length);
+        head++;
+        return true;
+    }
+
+    private static void format(StringBuilder batch, long time, Level level, String thread, String source,
+                               String message, String key, long value) {
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(time), batch);
+        batch.append(' ').append(level).append(" [").append(thread).append("] ")
+                .append(source).append(": ").append(message);
+        if (key != null) {
+            batch.append(' ').append(key).append('=').append(value);
+        }
+        batch.append(System.lineSeparator());
+    }
+
+    /**
+     * Ячейка буфера. Поля записывает поток, занявший ячейку, до публикации номера последовательности,
+     * а читает поток вывода после нее.
+     */
+    private static final class Slot {
+        long time;
+        Level level;
+        String thread;
+        String source;
+        String message;
+        String key;
+        long value;
+    }
+
+    private static final class Default {
+        static final EventLog INSTANCE = create();
+
+        private static EventLog create() {
+            Level level = Level.INFO;
+            int capacity = DEFAULT_CAPACITY;
+            PrintStream out = System.out;
+            try {
+                level = Level.parse(System.getProperty(LEVEL_PROPERTY, Level.INFO.name()));
+                capacity = Integer.parseInt(System.getProperty(BUFFER_PROPERTY, String.valueOf(DEFAULT_CAPACITY)));
+                String file = System.getProperty(FILE_PROPERTY);
+                if (file != null) {
+                    out = new PrintStream(new FileOutputStream(file, true), false, StandardCharsets.UTF_8);
+                }
+                return new EventLog(level, capacity, out);
+            } catch (IllegalArgumentException | FileNotFoundException e) {
+                // Журнал нужен и при ошибке настройки, поэтому неверные свойства заменяются значениями по умолчанию.
+                System.err.println("Журнал событий: " + e.getMessage() + ", используются настройки по умолчанию.");
+                return new EventLog(level, DEFAULT_CAPACITY, System.out);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.Log;
+
+import java.util.Locale;
+
+/**
+ * Уровень важности события журнала. Уровни упорядочены по возрастанию важности: журнал с уровнем
+ * {@link #INFO} пропускает {@link #INFO}, {@link #WARN} и {@link #ERROR}, а {@link #OFF} выключает журнал.
+ */
+public enum Level {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Разбирает название уровня без учета регистра.
+     *
+     * @param text Название, например, "debug"
+     * @return Уровень
+     * @throws IllegalArgumentException Если уровень с таким названием не найден.
+     */
+    public static Level parse(String text) throws IllegalArgumentException {
+        try {
+            return valueOf(text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный уровень журнала: " + text, e);
+        }
+    }
+}
@@ -1,7 +1,55 @@
 package com.company;
 
+import com.company.Engine.Players;
+import com.company.Game.InterfaceDrawer;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Metrics.Metrics;
+import com.company.Model.Board;
+import com.company.Model.Player;
+import com.company.Record.GameRecordWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
 public class Main {
 
-    public static void main(String[] args) {
+    /**
+     * Запускает консольную игру.
+     *
+     * @param args Описания первого и второго игрока, например, "human alphabeta:1000", и необязательное
+     *             зерно генератора случайных чисел для воспроизводимого назначения цветов.
+     *             По умолчанию играют два человека. Параметр {@code --record=<файл>} в любом месте
+     *             включает запись партии в файл (см. {@link GameRecordWriter}).
+     */
+    public static void main(String[] args) throws IOException {
+        String recordPath = null;
+        List<String> positional = new ArrayList<String>();
+        for (String arg : args) {
+            if (arg.startsWith(GameRecordWriter.OPTION)) {
+                recordPath = arg.substring(GameRecordWriter.OPTION.length());
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        Player player1 = Players.create(positional.size() > 0 ? positional.get(0) : Players.HUMAN, "Player 1");
+        Player player2 = Players.create(positional.size() > 1 ? positional.get(1) : Players.HUMAN, "Player 2");
+
+        Metrics.startServerIfConfigured();
+        RandomGenerator random = positional.size() > 2
+                ? new SplittableRandom(Long.parseLong(positional.get(2))) : RandomGenerator.getDefault();
+
+        Board board = new Board();
+        UgolkiGame game = new UgolkiGame(board, player1, player2,
+                new UgolkiPathChecker(board), new UgolkiWinCriteria(), random);
+        try (GameRecordWriter record = recordPath == null ? null : GameRecordWriter.open(recordPath)) {
+            game.setGameListener(record);
+            new ConsoleController(new InterfaceDrawer(), game).startGame();
+        }
     }
 }
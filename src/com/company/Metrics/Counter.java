@@ -0,0 +1,38 @@
+package com.company.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Монотонный счетчик событий. Увеличивается без блокировок: потоки пишут в разные ячейки
+ * {@link LongAdder}, поэтому счетчик, общий для потоков поиска, не становится точкой конкуренции.
+ */
+public final class Counter {
+    private final String name;
+    private final String help;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
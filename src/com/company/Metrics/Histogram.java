@@ -0,0 +1,148 @@
+package com.company.Metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма длительностей в наносекундах с логарифмически-линейными интервалами, как в HdrHistogram.
+ *
+ * Значения меньше {@value #SUB_BUCKETS} хранятся точно. Каждый следующий диапазон [2^k, 2^(k+1))
+ * делится на {@value #HALF_BUCKETS} равных интервалов, поэтому относительная погрешность любого
+ * значения не превышает 1/64 (около 1.6%), а весь диапазон long укладывается в
+ * {@value #BUCKET_COUNT} счетчиков. Номер интервала вычисляется сдвигами, запись - одно атомарное
+ * увеличение счетчика без блокировок и выделения памяти.
+ */
+public final class Histogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int HALF_BUCKETS = SUB_BUCKETS >> 1;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS + 1) * HALF_BUCKETS;
+
+    private final String name;
+    private final String help;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Записывает длительность.
+     *
+     * @param nanos Длительность в наносекундах; отрицательные значения считаются нулем.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Записывает время, прошедшее с момента {@code startNanos}, полученного от {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Снимок гистограммы. Снимок, снятый во время записи, может не учитывать записи, идущие
+     * параллельно, но всегда согласован сам с собой: количество равно сумме счетчиков интервалов.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // Старшие SUB_BITS - 1 бит значения после сдвига дают номер интервала внутри диапазона.
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * HALF_BUCKETS + (int) (value >>> shift) - HALF_BUCKETS;
+    }
+
+    /**
+     * @return Наибольшее значение, попадающее в интервал.
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_BUCKETS - 1;
+        long sub = index % HALF_BUCKETS + HALF_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return Сумма записанных значений в наносекундах.
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Значение, которое не превышают {@code percentile} процентов записей.
+         *
+         * @param percentile Процент от 0 до 100
+         * @return Верхняя граница интервала в наносекундах, но не больше максимума, или 0 для пустой гистограммы.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.Metrics;
+
+import java.io.IOException;
+
+/**
+ * Метрики правил игры: счетчики и гистограммы длительностей методов, которые вызывают игроки и сервер.
+ *
+ * Замеры стоят в точках входа API: {@code UgolkiGame.move}, {@code UgolkiPathChecker.checkMovePossibility},
+ * {@code UgolkiWinCriteria.checkForWinner} и {@code UgolkiGame.evaluation(Board, Player)}. Методы, которые
+ * поиск вызывает в каждом узле ({@code makeMove}, инкрементальные оценка и проверка окончания игры), не
+ * замеряются: два вызова {@link System#nanoTime()} и общие для всех потоков поиска счетчики гистограммы
+ * стоят больше самих методов и замедлили бы поиск в несколько раз.
+ *
+ * Сбор включается при запуске JVM свойством {@code -Dugolki.metrics=true} или заданием порта
+ * {@code -Dugolki.metrics.port=9464}, на котором {@link #startServerIfConfigured()} откроет локальную
+ * точку выгрузки (см. {@link MetricsServer}). Флаг {@link #ENABLED} - статическая константа, поэтому
+ * JIT-компилятор убирает выключенные замеры целиком, и без свойства горячие методы работают так же, как
+ * без метрик. Замер в методе выглядит так:
+ * <pre>
+ * long start = Metrics.ENABLED ? System.nanoTime() : 0;
+ * ...
+ * if (Metrics.ENABLED) {
+ *     Metrics.MOVE.recordSince(start);
+ * }
+ * </pre>
+ */
+public final class Metrics {
+    public static final String ENABLED_PROPERTY = "ugolki.metrics";
+    public static final String PORT_PROPERTY = "ugolki.metrics.port";
+
+    public static final boolean ENABLED =
+            Boolean.getBoolean(ENABLED_PROPERTY) || System.getProperty(PORT_PROPERTY) != null;
+
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    public static final Counter MOVES = REGISTRY.counter("ugolki_moves_total",
+            "Ходы игроков, принятые UgolkiGame.move и GameSession.move");
+    public static final Counter ILLEGAL_MOVES = REGISTRY.counter("ugolki_illegal_moves_total",
+            "Ходы игроков, отклоненные UgolkiGame.move и GameSession.move");
+
+    public static final Histogram MOVE = REGISTRY.histogram("ugolki_move_seconds",
+            "Длительность UgolkiGame.move: проверка, ход и оценка позиции");
+    public static final Histogram SESSION_MOVE = REGISTRY.histogram("ugolki_session_move_seconds",
+            "Длительность хода на сервере GameSession.move: проверка по списку допустимых ходов и ход");
+    public static final Histogram CHECK_MOVE_POSSIBILITY = REGISTRY.histogram(
+            "ugolki_check_move_possibility_seconds", "Длительность UgolkiPathChecker.checkMovePossibility");
+    public static final Histogram CHECK_FOR_WINNER = REGISTRY.histogram("ugolki_check_for_winner_seconds",
+            "Длительность UgolkiWinCriteria.checkForWinner");
+    public static final Histogram EVALUATION = REGISTRY.histogram("ugolki_evaluation_seconds",
+            "Длительность UgolkiGame.evaluation(Board, Player)");
+
+    private Metrics() {
+    }
+
+    /**
+     * Открывает точку выгрузки на порту из свойства {@value #PORT_PROPERTY}, если оно задано.
+     * Вызывается из точек входа приложений.
+     *
+     * @return Запущенный сервер или {@code null}, если порт не задан.
+     * @throws IllegalArgumentException Если порт задан неверно или занят.
+     */
+    public static MetricsServer startServerIfConfigured() throws IllegalArgumentException {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null) {
+            return null;
+        }
+
+        try {
+            MetricsServer server = new MetricsServer(REGISTRY);
+            server.start(Integer.parseInt(port.trim()));
+            return server;
+        } catch (NumberFormatException | IOException e) {
+            throw new IllegalArgumentException("Не удалось открыть порт метрик " + port + ": " + e.getMessage(), e);
+        }
+    }
+}
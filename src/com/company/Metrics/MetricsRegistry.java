@@ -0,0 +1,121 @@
+package com.company.Metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Набор именованных счетчиков и гистограмм с выгрузкой в JSON и в текстовый формат Prometheus.
+ *
+ * Метрики регистрируются один раз, обычно в статических полях, и дальше обновляются без обращения
+ * к реестру. Выгрузка перечисляет метрики в порядке имен, поэтому ее вывод можно сравнивать между
+ * запусками.
+ */
+public class MetricsRegistry {
+    /**
+     * Процентили, которые попадают в выгрузку гистограмм.
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+    private static final String[] QUANTILES = { "0.5", "0.9", "0.99", "0.999" };
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<String, Counter>();
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<String, Histogram>();
+
+    /**
+     * Регистрирует счетчик или возвращает уже зарегистрированный с тем же именем.
+     *
+     * @param name Имя в формате Prometheus, например, "ugolki_moves_total".
+     * @param help Описание метрики.
+     */
+    public Counter counter(String name, String help) {
+        checkName(name);
+        return counters.computeIfAbsent(name, key -> new Counter(key, help));
+    }
+
+    /**
+     * Регистрирует гистограмму длительностей или возвращает уже зарегистрированную с тем же именем.
+     *
+     * @param name Имя в формате Prometheus с единицей измерения выгрузки, например, "ugolki_move_seconds".
+     * @param help Описание метрики.
+     */
+    public Histogram histogram(String name, String help) {
+        checkName(name);
+        return histograms.computeIfAbsent(name, key -> new Histogram(key, help));
+    }
+
+    /**
+     * Выгрузка в текстовом формате Prometheus 0.0.4. Гистограммы выгружаются как summary в секундах:
+     * процентили, сумма и количество, а также отдельная метрика с максимумом.
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Counter counter : counters.values()) {
+            header(out, counter.getName(), counter.getHelp(), "counter");
+            out.append(counter.getName()).append(' ').append(counter.get()).append('\n');
+        }
+        for (Histogram histogram : histograms.values()) {
+            String name = histogram.getName();
+            Histogram.Snapshot snapshot = histogram.snapshot();
+            header(out, name, histogram.getHelp(), "summary");
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                out.append(name).append("{quantile=\"").append(QUANTILES[i]).append("\"} ")
+                        .append(seconds(snapshot.getValueAtPercentile(PERCENTILES[i]))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(snapshot.getSum())).append('\n');
+            out.append(name).append("_count ").append(snapshot.getCount()).append('\n');
+            header(out, name + "_max", histogram.getHelp() + " (максимум)", "gauge");
+            out.append(name).append("_max ").append(seconds(snapshot.getMax())).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Выгрузка в JSON: {@code {"counters": {...}, "histograms": {...}}}. Длительности в наносекундах.
+     */
+    public String toJson() {
+        StringBuilder out = new StringBuilder("{\"counters\":{");
+        String separator = "";
+        for (Counter counter : counters.values()) {
+            out.append(separator).append('"').append(counter.getName()).append("\":").append(counter.get());
+            separator = ",";
+        }
+        out.append("},\"histograms\":{");
+        separator = "";
+        for (Histogram histogram : histograms.values()) {
+            Histogram.Snapshot snapshot = histogram.snapshot();
+            out.append(separator).append('"').append(histogram.getName()).append("\":{")
+                    .append("\"count\":").append(snapshot.getCount())
+                    .append(",\"sum_ns\":").append(snapshot.getSum())
+                    .append(",\"mean_ns\":").append(String.format(Locale.ROOT, "%.1f", snapshot.getMean()))
+                    .append(",\"max_ns\":").append(snapshot.getMax());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                out.append(",\"").append(PERCENTILE_NAMES[i]).append("_ns\":")
+                        .append(snapshot.getValueAtPercentile(PERCENTILES[i]));
+            }
+            out.append('}');
+            separator = ",";
+        }
+        return out.append("}}").toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    /**
+     * Имя используется в выгрузке без экранирования, поэтому допускаются только символы,
+     * разрешенные в именах метрик Prometheus.
+     */
+    private static void checkName(String name) {
+        if (name == null || !name.matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+            throw new IllegalArgumentException("Недопустимое имя метрики: " + name);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.company.Metrics;
+
+import com.company.Log.EventLog;
+import com.company.Log.Level;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Локальная точка выгрузки метрик по HTTP. Слушает только адрес обратной петли и отвечает на
+ * запросы GET:
+ * <ul>
+ *     <li>{@code /metrics} - текстовый формат Prometheus;</li>
+ *     <li>{@code /metrics.json} - JSON.</li>
+ * </ul>
+ * Запросы обрабатываются по очереди одним фоновым потоком-демоном, который не мешает завершению
+ * приложения: опрос метрик редок, а выгрузка занимает доли миллисекунды.
+ */
+public class MetricsServer {
+    private static final int READ_TIMEOUT_MILLIS = 2000;
+
+    private final MetricsRegistry registry;
+    private ServerSocket serverSocket;
+
+    public MetricsServer(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Открывает порт и запускает поток обработки запросов.
+     *
+     * @param port Порт или 0, чтобы выбрать свободный.
+     * @return Порт, на котором работает сервер.
+     */
+    public int start(int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+        Thread thread = new Thread(this::serve, "metrics-" + serverSocket.getLocalPort());
+        thread.setDaemon(true);
+        thread.start();
+        return serverSocket.getLocalPort();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void stop() throws IOException {
+        serverSocket.close();
+    }
+
+    private void serve() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+                handle(socket);
+            } catch (SocketException e) {
+                // Сокет закрыт методом stop() или клиент оборвал соединение.
+            } catch (IOException e) {
+                EventLog.getDefault().log(Level.WARN, "metrics", "Ошибка выгрузки метрик: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        String requestLine = in.readLine();
+        if (requestLine == null) {
+            return;
+        }
+        // Заголовки запроса не используются, но дочитываются до пустой строки.
+        String header = in.readLine();
+        while (header != null && !header.isEmpty()) {
+            header = in.readLine();
+        }
+
+        String[] parts = requestLine.split(" ");
+        String path = parts.length > 1 ? parts[1] : "";
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+
+        OutputStream out = socket.getOutputStream();
+        if (!"GET".equals(parts[0])) {
+            respond(out, "405 Method Not Allowed", "text/plain; charset=utf-8", "Only GET is supported\n");
+        } else if ("/metrics".equals(path)) {
+            respond(out, "200 OK", "text/plain; version=0.0.4; charset=utf-8", registry.toPrometheus());
+        } else if ("/metrics.json".equals(path)) {
+            respond(out, "200 OK", "application/json; charset=utf-8", registry.toJson());
+        } else {
+            respond(out, "404 Not Found", "text/plain; charset=utf-8", "Use /metrics or /metrics.json\n");
+        }
+    }
+
+    private static void respond(OutputStream out, String status, String contentType, String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String headers = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + content.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(headers.getBytes(StandardCharsets.US_ASCII));
+        out.write(content);
+        out.flush();
+    }
+}
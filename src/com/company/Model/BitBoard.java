@@ -0,0 +1,382 @@
+package com.company.Model;
+
+import java.util.Arrays;
+
+/**
+ * Позиция на доске в виде битовых масок: по {@link #getWordCount()} 64-битных слов на каждый цвет фигур.
+ *
+ * Клетка с координатами (x, y) соответствует биту с индексом {@code y * width + x}: биту
+ * {@code square & 63} слова {@code square >>> 6}. Слова обоих цветов лежат подряд в одном массиве,
+ * поэтому на доске 8x8 позиция занимает два слова, а на доске 12x12 - шесть, и копирование позиции
+ * остается копированием короткого массива. Таблицы соседей и прыжков рассчитываются один раз при
+ * создании доски, поэтому запросы занятости, соседей и прыжков сводятся к битовым операциям и
+ * индексации массивов без выделения памяти.
+ *
+ * Методы, принимающие и возвращающие маску одним словом ({@link #getMask}, {@link #getOccupied},
+ * {@link #maskOf}), доступны только для досок до 64 клеток; на больших досках используются методы
+ * со словами ({@link #getWord}, {@link #wordsOf}).
+ */
+public class BitBoard {
+    /**
+     * Количество направлений движения: вправо, влево, вниз, вверх.
+     */
+    public static final int DIRECTIONS = 4;
+    /**
+     * Наибольшее количество клеток: индекс клетки в упакованном ходе занимает байт (см. {@code Move}).
+     */
+    public static final int MAX_SQUARES = 256;
+    private static final int WORD_SHIFT = 6;
+    private static final int[] OFFSETS_X = { 1, -1, 0, 0 };
+    private static final int[] OFFSETS_Y = { 0, 0, 1, -1 };
+
+    private final int width;
+    private final int height;
+    private final int size;
+    private final int[] neighbours;
+    private final int[] jumps;
+    private final long[] neighbourMasks;
+    private final int words;
+    // Слова фигур: [color.ordinal() * words + word]
+    private final long[] pieces;
+    private long key;
+
+    public BitBoard(int width, int height) {
+        if (width <= 0 || height <= 0 || width * height > MAX_SQUARES) {
+            throw new IllegalArgumentException("Недопустимый размер доски: " + width + "x" + height);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+        this.words = (size + Long.SIZE - 1) >>> WORD_SHIFT;
+        this.pieces = new long[Figure.Color.values().length * words];
+        this.neighbours = new int[DIRECTIONS * size];
+        this.jumps = new int[DIRECTIONS * size];
+        this.neighbourMasks = words == 1 ? new long[size] : null;
+        createTables();
+    }
+
+    /**
+     * Создает копию позиции. Таблицы соседей и прыжков неизменяемы и разделяются с оригиналом.
+     *
+     * @param other Копируемая позиция.
+     */
+    public BitBoard(BitBoard other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.size = other.size;
+        this.neighbours = other.neighbours;
+        this.jumps = other.jumps;
+        this.neighbourMasks = other.neighbourMasks;
+        this.words = other.words;
+        this.pieces = other.pieces.clone();
+        this.key = other.key;
+    }
+
+    /**
+     * Копирует расстановку фигур из другой позиции того же размера.
+     *
+     * @param other Позиция-источник
+     */
+    public void copyFrom(BitBoard other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Размеры досок не совпадают.");
+        }
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        this.key = other.key;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return Количество 64-битных слов в маске одного цвета.
+     */
+    public int getWordCount() {
+        return words;
+    }
+
+    /**
+     * Номер слова маски, в котором лежит клетка. Бит клетки в этом слове - {@link #bit(int)}.
+     */
+    public static int word(int square) {
+        return square >>> WORD_SHIFT;
+    }
+
+    /**
+     * Индекс клетки по координатам.
+     *
+     * @param x X - координата
+     * @param y Y - координата
+     * @return Индекс клетки или -1, если координаты вне доски.
+     */
+    public int index(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return -1;
+        }
+        return y * width + x;
+    }
+
+    public int getX(int square) {
+        return square % width;
+    }
+
+    public int getY(int square) {
+        return square / width;
+    }
+
+    /**
+     * Бит клетки в ее слове маски (см. {@link #word(int)}). Для досок до 64 клеток - маска,
+     * содержащая только указанную клетку.
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Маска фигур цвета одним словом.
+     *
+     * @throws IllegalStateException Если на доске больше 64 клеток.
+     */
+    public long getMask(Figure.Color color) {
+        checkSingleWord();
+        return pieces[color.ordinal()];
+    }
+
+    /**
+     * Маска занятых клеток одним словом.
+     *
+     * @throws IllegalStateException Если на доске больше 64 клеток.
+     */
+    public long getOccupied() {
+        checkSingleWord();
+        return pieces[0] | pieces[1];
+    }
+
+    /**
+     * Маска пустых клеток одним словом.
+     *
+     * @throws IllegalStateException Если на доске больше 64 клеток.
+     */
+    public long getEmpty() {
+        return ~getOccupied() & (size == Long.SIZE ? -1L : bit(size) - 1);
+    }
+
+    /**
+     * Слово маски фигур цвета.
+     *
+     * @param color Цвет фигур
+     * @param word  Номер слова от 0 до {@link #getWordCount()}
+     */
+    public long getWord(Figure.Color color, int word) {
+        return pieces[color.ordinal() * words + word];
+    }
+
+    /**
+     * Слово маски занятых клеток.
+     */
+    public long getOccupiedWord(int word) {
+        return pieces[word] | pieces[words + word];
+    }
+
+    public boolean isEmpty(int square) {
+        int word = word(square);
+        return ((pieces[word] | pieces[words + word]) & bit(square)) == 0;
+    }
+
+    /**
+     * Цвет фигуры на клетке.
+     *
+     * @param square Индекс клетки.
+     * @return Цвет фигуры или {@code null}, если клетка пуста.
+     */
+    public Figure.Color getColor(int square) {
+        int word = word(square);
+        long bit = bit(square);
+        if ((pieces[Figure.Color.WHITE.ordinal() * words + word] & bit) != 0) {
+            return Figure.Color.WHITE;
+        }
+        if ((pieces[Figure.Color.BLACK.ordinal() * words + word] & bit) != 0) {
+            return Figure.Color.BLACK;
+        }
+        return null;
+    }
+
+    /**
+     * Ключ Zobrist расстановки фигур. Обновляется при каждом изменении позиции, в том числе при
+     * отмене хода, и не учитывает очередь хода.
+     *
+     * @return Ключ позиции
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Ставит фигуру указанного цвета на клетку, заменяя фигуру, стоявшую там ранее.
+     */
+    public void set(int square, Figure.Color color) {
+        clear(square);
+        pieces[color.ordinal() * words + word(square)] |= bit(square);
+        key ^= Zobrist.pieceKey(color, square);
+    }
+
+    public void clear(int square) {
+        Figure.Color color = getColor(square);
+        if (color == null) {
+            return;
+        }
+
+        pieces[color.ordinal() * words + word(square)] &= ~bit(square);
+        key ^= Zobrist.pieceKey(color, square);
+    }
+
+    public void clearAll() {
+        Arrays.fill(pieces, 0);
+        key = 0;
+    }
+
+    /**
+     * Переносит фигуру с клетки {@code from} на пустую клетку {@code to}. Правила хода не проверяются.
+     * Отмена хода выполняется обратным переносом.
+     */
+    public void movePiece(int from, int to) {
+        Figure.Color color = (pieces[Figure.Color.WHITE.ordinal() * words + word(from)] & bit(from)) != 0
+                ? Figure.Color.WHITE : Figure.Color.BLACK;
+        int base = color.ordinal() * words;
+        pieces[base + word(from)] ^= bit(from);
+        pieces[base + word(to)] ^= bit(to);
+        key ^= Zobrist.pieceKey(color, from) ^ Zobrist.pieceKey(color, to);
+    }
+
+    public int countPieces(Figure.Color color) {
+        int count = 0;
+        for (int word = 0; word < words; word++) {
+            count += Long.bitCount(getWord(color, word));
+        }
+        return count;
+    }
+
+    /**
+     * Количество фигур указанного цвета на клетках маски.
+     *
+     * @param mask Маска по словам (см. {@link #wordsOf(Iterable)}).
+     */
+    public int countPieces(Figure.Color color, long[] mask) {
+        int count = 0;
+        for (int word = 0; word < words; word++) {
+            count += Long.bitCount(getWord(color, word) & mask[word]);
+        }
+        return count;
+    }
+
+    /**
+     * Проверяет, что фигуры указанного цвета занимают все клетки маски.
+     *
+     * @throws IllegalStateException Если на доске больше 64 клеток.
+     */
+    public boolean containsAll(Figure.Color color, long mask) {
+        return (getMask(color) & mask) == mask;
+    }
+
+    /**
+     * Соседняя клетка в указанном направлении.
+     *
+     * @return Индекс соседней клетки или -1, если она за пределами доски.
+     */
+    public int getNeighbour(int square, int direction) {
+        return neighbours[direction * size + square];
+    }
+
+    /**
+     * Клетка, на которую приземляется фигура при прыжке через соседа в указанном направлении.
+     *
+     * @return Индекс клетки приземления или -1, если она за пределами доски.
+     */
+    public int getJumpTarget(int square, int direction) {
+        return jumps[direction * size + square];
+    }
+
+    /**
+     * Маска соседей клетки одним словом.
+     *
+     * @throws IllegalStateException Если на доске больше 64 клеток.
+     */
+    public long getNeighbourMask(int square) {
+        checkSingleWord();
+        return neighbourMasks[square];
+    }
+
+    /**
+     * Проверяет возможность прыжка с клетки через занятого соседа на пустую клетку за ним.
+     */
+    public boolean canJump(int square, int direction) {
+        int target = getJumpTarget(square, direction);
+        return target >= 0 && !isEmpty(getNeighbour(square, direction)) && isEmpty(target);
+    }
+
+    /**
+     * Строит маску одним словом по списку точек.
+     *
+     * @param points Точки на доске.
+     * @return Маска, содержащая все точки, попадающие на доску.
+     * @throws IllegalStateException Если на доске больше 64 клеток.
+     */
+    public long maskOf(Iterable<Point> points) {
+        checkSingleWord();
+        return wordsOf(points)[0];
+    }
+
+    /**
+     * Строит маску по словам по списку точек.
+     *
+     * @param points Точки на доске.
+     * @return Маска из {@link #getWordCount()} слов, содержащая все точки, попадающие на доску.
+     */
+    public long[] wordsOf(Iterable<Point> points) {
+        long[] mask = new long[words];
+        for (Point point : points) {
+            int square = index(point.getX(), point.getY());
+            if (square >= 0) {
+                mask[word(square)] |= bit(square);
+            }
+        }
+        return mask;
+    }
+
+    private void checkSingleWord() {
+        if (words != 1) {
+            throw new IllegalStateException("Маска одним словом недоступна для доски " + width + "x" + height);
+        }
+    }
+
+    /**
+     * Предварительный расчет таблиц соседей и прыжков для всех клеток доски.
+     */
+    private void createTables() {
+        for (int square = 0; square < size; square++) {
+            int x = getX(square);
+            int y = getY(square);
+
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int neighbour = index(x + OFFSETS_X[direction], y + OFFSETS_Y[direction]);
+                neighbours[direction * size + square] = neighbour;
+                jumps[direction * size + square] =
+                        index(x + 2 * OFFSETS_X[direction], y + 2 * OFFSETS_Y[direction]);
+
+                if (neighbour >= 0 && neighbourMasks != null) {
+                    neighbourMasks[square] |= bit(neighbour);
+                }
+            }
+        }
+    }
+}
@@ -6,11 +6,14 @@ import java.util.List;
 import java.util.Map;
 
 public class Board {
-    public static final char[] CHARACTERS = { 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H' };
+    // Буквенные обозначения столбцов, поэтому ширина доски не больше 26
+    public static final char[] CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
     private static final int DEFAULT_WIDTH = 8;
     private static final int DEFAULT_HEIGHT = 8;
-    private Map<Point, Cell> cells;
+    // Клетки по индексу в битовой позиции (см. BitBoard#index)
+    private Cell[] cells;
     private Map<String, Cell> cellsByName;
+    private BitBoard bitBoard;
     private int width;
     private int height;
 
@@ -19,9 +22,13 @@ public class Board {
     }
 
     public Board(int width, int height) {
+        if (width > CHARACTERS.length) {
+            throw new IllegalArgumentException("Ширина доски больше " + CHARACTERS.length + ": " + width);
+        }
         this.width = width;
         this.height = height;
-        cells = new HashMap<Point, Cell>();
+        bitBoard = new BitBoard(width, height);
+        cells = new Cell[width * height];
         cellsByName = new HashMap<String, Cell>();
         createCells();
     }
@@ -33,13 +40,20 @@ public class Board {
      * @param point Точка на доске
      */
     public void addFigure(Figure figure, Point point) {
-        this.cells.get(point).setFigure(figure);
+        getCellAt(point.getX(), point.getY()).setFigure(figure);
     }
 
     public void cleanCells() {
-        for (Cell cell : this.cells.values()) {
-            cell.removeFigure();
-        }
+        bitBoard.clearAll();
+    }
+
+    /**
+     * Битовая позиция, в которой хранятся фигуры. Клетки доски служат адаптером над ней.
+     *
+     * @return Битовая позиция доски
+     */
+    public BitBoard getBitBoard() {
+        return bitBoard;
     }
 
     /**
@@ -47,10 +61,21 @@ public class Board {
      *
      * @param x X - координата
      * @param y Y -координата
-     * @return Ячейку с заданными координатами
+     * @return Ячейку с заданными координатами или {@code null}, если координаты вне доски.
      */
     public Cell getCellAt(int x, int y) {
-        return this.cells.get(new Point(x, y));
+        int index = bitBoard.index(x, y);
+        return index < 0 ? null : cells[index];
+    }
+
+    /**
+     * Клетка по индексу в битовой позиции.
+     *
+     * @param index Индекс клетки (см. {@link BitBoard#index(int, int)}).
+     * @return Клетка
+     */
+    public Cell getCell(int index) {
+        return cells[index];
     }
 
 
@@ -62,11 +87,13 @@ public class Board {
      */
     public List<Point> getFiguresPoints(Figure.Color color) {
         List<Point> points = new ArrayList<Point>();
-        // Перебираем все клетки на доске
-        for (Map.Entry<Point, Cell> e : cells.entrySet()) {
-            // Проверяем, что клетка не пуста и цвет фигуры в клетке совпадает с указанным цветом
-            if (!e.getValue().isEmpty() && e.getValue().getFigure().getColor() == color) {
-                points.add(e.getKey());
+        // Перебираем установленные биты маски фигур указанного цвета по словам
+        for (int word = 0; word < bitBoard.getWordCount(); word++) {
+            long mask = bitBoard.getWord(color, word);
+            while (mask != 0) {
+                int square = (word << 6) + Long.numberOfTrailingZeros(mask);
+                points.add(Point.of(bitBoard.getX(square), bitBoard.getY(square)));
+                mask &= mask - 1;
             }
         }
 
@@ -135,13 +162,12 @@ public class Board {
                 // Формируем имя клетки, используя буквенные координаты и числовую координату
                 String name = CHARACTERS[x] + String.valueOf(y + 1);
                 // Инвертируем координату по вертикали для корректного представления на доске
-                int inversedY = getWidth() - (y + 1);
-                // Создаем объект клетки с заданным именем и координатами
-                Cell cell = new Cell(name, x, inversedY);
-                // Создаем объект точки, используя координаты x и инвертированную y
-                Point point = new Point(x, inversedY);
-                // Добавляем созданный объект клетки в карту cells с использованием точки в качестве ключа
-                this.cells.put(point, cell);
+                int inversedY = getHeight() - (y + 1);
+                // Создаем клетку-адаптер над битовой позицией с заданным именем и координатами
+                int index = bitBoard.index(x, inversedY);
+                Cell cell = new Cell(name, Point.of(x, inversedY), bitBoard, index);
+                // Сохраняем клетку в массиве по ее индексу в битовой позиции
+                this.cells[index] = cell;
                 // Добавляем созданный объект клетки в карту cellsByName с использованием имени в качестве ключа
                 this.cellsByName.put(name, cell);
             }
@@ -2,13 +2,11 @@ package com.company.Model;
 
 public class Cell {
 
-    private Point point;
-    private String name;
+    private final Point point;
+    private final String name;
     private Figure figure;
-
-    public Cell() {
-
-    }
+    private BitBoard bitBoard;
+    private int index = -1;
 
     public Cell (String name, Point point) {
         this.name = name;
@@ -16,7 +14,21 @@ public class Cell {
     }
 
     public Cell(String name, int x, int y) {
-        this(name, new Point(x, y));
+        this(name, Point.of(x, y));
+    }
+
+    /**
+     * Создает клетку-адаптер, состояние которой хранится в битовой позиции доски.
+     *
+     * @param name     Имя клетки, например, "A1".
+     * @param point    Координаты клетки.
+     * @param bitBoard Битовая позиция, в которой хранятся фигуры.
+     * @param index    Индекс клетки в битовой позиции.
+     */
+    Cell(String name, Point point, BitBoard bitBoard, int index) {
+        this(name, point);
+        this.bitBoard = bitBoard;
+        this.index = index;
     }
 
     /**
@@ -27,34 +39,53 @@ public class Cell {
     }
 
     public Figure getFigure() {
-        return figure;
+        if (bitBoard == null) {
+            return figure;
+        }
+        Figure.Color color = bitBoard.getColor(index);
+        return color == null ? null : Figure.of(color);
     }
 
     public void setFigure(Figure figure) {
-        this.figure = figure;
+        if (bitBoard == null) {
+            this.figure = figure;
+        } else if (figure == null) {
+            bitBoard.clear(index);
+        } else {
+            bitBoard.set(index, figure.getColor());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Индекс клетки в битовой позиции доски или -1 для клетки вне доски.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Point getPoint() {
+        return point;
     }
 
     public int getX() {
         return point.getX();
     }
 
-    public void setX(int x) { this.point.setX(x); }
-
     public int getY() {
         return point.getY();
     }
 
-    public void setY(int y) {
-        this.point.setY(y);
-    }
-
     /**
      * Проверяет, содержит ли клетка фигуру или пуста.
      *
      * @return Результат в виде булевого значения.
      */
     public boolean isEmpty() {
-        return this.figure == null;
+        return getFigure() == null;
     }
 
     @Override
@@ -80,6 +111,6 @@ public class Cell {
 
     @Override
     public String toString() {
-        return String.format("Cell [%s, %s, %s]", name, point, figure);
+        return String.format("Cell [%s, %s, %s]", name, point, getFigure());
     }
 }
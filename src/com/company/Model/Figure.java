@@ -1,6 +1,8 @@
 package com.company.Model;
 
 public class Figure {
+    private static final Figure WHITE_FIGURE = new Figure((Point) null, Color.WHITE);
+    private static final Figure BLACK_FIGURE = new Figure((Point) null, Color.BLACK);
 
     private Color color;
     private Point point;
@@ -14,7 +16,17 @@ public class Figure {
     }
 
     public Figure(int x, int y, Color color) {
-        this(new Point(x, y), color);
+        this(Point.of(x, y), color);
+    }
+
+    /**
+     * Возвращает общую фигуру указанного цвета без привязки к клетке.
+     *
+     * @param color Цвет фигуры
+     * @return Фигура
+     */
+    public static Figure of(Color color) {
+        return color == Color.WHITE ? WHITE_FIGURE : BLACK_FIGURE;
     }
 
     public Color getColor() {
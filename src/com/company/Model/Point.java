@@ -1,32 +1,66 @@
 package com.company.Model;
 
-public class Point {
-    private int x;
-    private int y;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-    public Point() {}
+/**
+ * Неизменяемые координаты клетки.
+ *
+ * Точки создаются только через {@link #of(int, int)} и для координат доски переиспользуются: точки
+ * доски 8x8 хранятся в таблице, созданной заранее, точки больших досок добавляются в расширяемую
+ * таблицу при первом обращении. Поэтому получение точки - это индексация массива без выделения памяти,
+ * а точки можно безопасно использовать как ключи.
+ */
+public final class Point {
+    private static final int BASE_SIZE = 8;
+    /**
+     * Координаты от 0 до {@code MAX_INTERNED - 1} по каждой оси переиспользуются.
+     */
+    public static final int MAX_INTERNED = 128;
+    private static final Point[] BASE_POINTS = new Point[BASE_SIZE * BASE_SIZE];
 
-    public Point(int x, int y) {
+    static {
+        for (int y = 0; y < BASE_SIZE; y++) {
+            for (int x = 0; x < BASE_SIZE; x++) {
+                BASE_POINTS[y * BASE_SIZE + x] = new Point(x, y);
+            }
+        }
+    }
+
+    private final int x;
+    private final int y;
+
+    private Point(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
-    public int getX() {
-        return x;
+    /**
+     * Точка с указанными координатами.
+     *
+     * @param x X - координата
+     * @param y Y - координата
+     * @return Общий экземпляр для координат от 0 до {@link #MAX_INTERNED}, иначе новая точка.
+     */
+    public static Point of(int x, int y) {
+        if (x >= 0 && y >= 0) {
+            if (x < BASE_SIZE && y < BASE_SIZE) {
+                return BASE_POINTS[y * BASE_SIZE + x];
+            }
+            if (x < MAX_INTERNED && y < MAX_INTERNED) {
+                return Extended.get(x, y);
+            }
+        }
+        return new Point(x, y);
     }
 
-    public void setX(int x) {
-        this.x = x;
+    public int getX() {
+        return x;
     }
 
     public int getY() {
         return y;
     }
 
-    public void setY(int y) {
-        this.y = y;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -52,4 +86,22 @@ public class Point {
     public String toString() {
         return String.format("Point [%s, %s]", x, y);
     }
+
+    /**
+     * Таблица точек больших досок. Создается при первом обращении, точки добавляются без блокировок.
+     */
+    private static final class Extended {
+        private static final AtomicReferenceArray<Point> POINTS =
+                new AtomicReferenceArray<Point>(MAX_INTERNED * MAX_INTERNED);
+
+        static Point get(int x, int y) {
+            int index = y * MAX_INTERNED + x;
+            Point point = POINTS.get(index);
+            if (point == null) {
+                POINTS.compareAndSet(index, null, new Point(x, y));
+                point = POINTS.get(index);
+            }
+            return point;
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package com.company.Model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Случайные ключи Zobrist для хеширования позиций.
+ *
+ * Ключ позиции равен XOR ключей всех фигур на своих клетках, поэтому при ходе он обновляется
+ * двумя операциями XOR. Ключи генерируются из фиксированного зерна и одинаковы при каждом запуске.
+ */
+public final class Zobrist {
+    /**
+     * Ключ, добавляемый к позиции, в которой ходят черные.
+     */
+    public static final long BLACK_TO_MOVE;
+    /**
+     * Ключ, добавляемый к позиции, в которой черные делают последний ход за ничью.
+     */
+    public static final long FIGHT_FOR_DEAD_HEAT;
+    private static final long SEED = 0x5EED_C0DE_2023L;
+    // Ключи первых 64 клеток генерируются первыми, чтобы ключи позиций доски 8x8 не зависели от
+    // поддержки больших досок и совпадали с ключами в ранее построенных книгах дебютов.
+    private static final int BASE_SQUARES = 64;
+    private static final long[] WHITE_KEYS = new long[BitBoard.MAX_SQUARES];
+    private static final long[] BLACK_KEYS = new long[BitBoard.MAX_SQUARES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int square = 0; square < BASE_SQUARES; square++) {
+            WHITE_KEYS[square] = random.nextLong();
+            BLACK_KEYS[square] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        FIGHT_FOR_DEAD_HEAT = random.nextLong();
+        for (int square = BASE_SQUARES; square < BitBoard.MAX_SQUARES; square++) {
+            WHITE_KEYS[square] = random.nextLong();
+            BLACK_KEYS[square] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Ключ фигуры указанного цвета на клетке.
+     *
+     * @param color  Цвет фигуры
+     * @param square Индекс клетки
+     * @return Ключ Zobrist
+     */
+    public static long pieceKey(Figure.Color color, int square) {
+        return color == Figure.Color.WHITE ? WHITE_KEYS[square] : BLACK_KEYS[square];
+    }
+}
@@ -0,0 +1,86 @@
+package com.company.Record;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Двоичный формат архива партий.
+ *
+ * Файл начинается с сигнатуры {@code 'U' 'G' 'R'} и номера версии, за которыми подряд идут записи
+ * партий. Каждая запись предваряется своей длиной в формате varint, поэтому запись можно пропустить
+ * без разбора. Тело записи:
+ * <ul>
+ *     <li>ширина и высота доски - по байту;</li>
+ *     <li>флаги - байт: {@link #FLAG_CUSTOM_START}, {@link #FLAG_BLACK_FIRST}, {@link #FLAG_CAMP};</li>
+ *     <li>итог - байт: порядковый номер статуса в младших 4 битах, в старших - победитель (0 - нет,
+ *     иначе порядковый номер цвета плюс один);</li>
+ *     <li>при {@link #FLAG_CAMP} - ширина и высота лагеря, по байту;</li>
+ *     <li>при {@link #FLAG_CUSTOM_START} - маски белых и черных фигур начальной позиции, по 8 байт на
+ *     каждые 64 клетки доски: на доске 8x8 по одному слову, на доске 10x10 по два;</li>
+ *     <li>количество ходов в формате varint;</li>
+ *     <li>ходы - по два байта: индекс начальной и целевой клетки.</li>
+ * </ul>
+ */
+public final class GameRecordFormat {
+    public static final byte[] MAGIC = { 'U', 'G', 'R' };
+    public static final int VERSION = 1;
+    /**
+     * Партия начата не со стандартной расстановки, в записи есть маски начальной позиции.
+     */
+    public static final int FLAG_CUSTOM_START = 1;
+    /**
+     * Первый ход в партии делают черные.
+     */
+    public static final int FLAG_BLACK_FIRST = 2;
+    /**
+     * Лагерь отличается от стандартного 4x3, в записи есть его размер.
+     */
+    public static final int FLAG_CAMP = 4;
+    public static final int STATUS_MASK = 0xF;
+    public static final int WINNER_SHIFT = 4;
+
+    private GameRecordFormat() {
+    }
+
+    /**
+     * Записывает неотрицательное число в формате varint: по 7 бит в байте, старший бит - признак продолжения.
+     */
+    public static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Читает число в формате varint.
+     *
+     * @return Число или -1, если поток закончился до первого байта.
+     * @throws IOException Если поток закончился посреди числа, число слишком длинное или не помещается
+     *                     в неотрицательный int.
+     */
+    public static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new IOException("Неожиданный конец записи.");
+            }
+
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                // Отрицательное значение неотличимо от конца потока, поэтому считается повреждением.
+                if (value < 0) {
+                    throw new IOException("Слишком большое число varint.");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Слишком длинное число varint.");
+    }
+}
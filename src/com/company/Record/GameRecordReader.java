@@ -0,0 +1,324 @@
+package com.company.Record;
+
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Game.WinCheckResponse;
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Потоковое чтение архива партий в формате {@link GameRecordFormat}.
+ *
+ * Записи читаются по одной в переиспользуемый буфер, поэтому чтение не выделяет память на каждую
+ * партию. Прочитанную партию можно воспроизвести в новой или переиспользуемой игре.
+ *
+ * Использование: {@code GameRecordReader <файл>} - воспроизводит все партии архива и выводит скорость.
+ */
+public class GameRecordReader implements Closeable {
+    private static final int READ_BUFFER = 1 << 16;
+
+    private final DataInputStream in;
+    private byte[] record = new byte[256];
+    private int[] moves = new int[128];
+    private int moveCount;
+    private int width;
+    private int height;
+    private int campWidth;
+    private int campHeight;
+    private int flags;
+    private int outcome;
+    // Маски начальной позиции по словам: сначала белые, затем черные
+    private long[] startWords = new long[2];
+    private int startWordCount;
+    private long gamesRead;
+
+    /**
+     * Создает читателя и проверяет заголовок файла.
+     *
+     * @param in Поток ввода
+     * @throws IOException Если заголовок не совпадает с форматом или версия не поддерживается.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(
+                in instanceof BufferedInputStream ? in : new BufferedInputStream(in, READ_BUFFER));
+
+        byte[] magic = new byte[GameRecordFormat.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, GameRecordFormat.MAGIC)) {
+            throw new IOException("Файл не является архивом партий.");
+        }
+        int version = this.in.read();
+        if (version != GameRecordFormat.VERSION) {
+            throw new IOException("Неподдерживаемая версия архива: " + version);
+        }
+    }
+
+    /**
+     * Читает следующую партию.
+     *
+     * @return {@code false}, если партии в архиве закончились.
+     * @throws IOException Если запись повреждена.
+     */
+    public boolean next() throws IOException {
+        int length = GameRecordFormat.readVarint(in);
+        if (length < 0) {
+            return false;
+        }
+        if (length < 5) {
+            throw new IOException("Слишком короткая запись партии: " + length);
+        }
+        if (record.length < length) {
+            record = new byte[Math.max(length, record.length * 2)];
+        }
+        try {
+            in.readFully(record, 0, length);
+        } catch (EOFException e) {
+            throw new IOException("Неожиданный конец записи.", e);
+        }
+
+        int position = 0;
+        width = record[position++] & 0xFF;
+        height = record[position++] & 0xFF;
+        flags = record[position++] & 0xFF;
+        outcome = record[position++] & 0xFF;
+        campWidth = UgolkiWinCriteria.STANDARD_CAMP_WIDTH;
+        campHeight = UgolkiWinCriteria.STANDARD_CAMP_HEIGHT;
+        if ((flags & GameRecordFormat.FLAG_CAMP) != 0) {
+            if (position + 2 > length) {
+                throw new IOException("Некорректный размер лагеря в записи.");
+            }
+            campWidth = record[position++] & 0xFF;
+            campHeight = record[position++] & 0xFF;
+        }
+        startWordCount = 0;
+        if ((flags & GameRecordFormat.FLAG_CUSTOM_START) != 0) {
+            int words = (width * height + Long.SIZE - 1) / Long.SIZE;
+            if (position + 2 * words * Long.BYTES > length) {
+                throw new IOException("Некорректная начальная позиция в записи.");
+            }
+            if (startWords.length < 2 * words) {
+                startWords = new long[2 * words];
+            }
+            for (int i = 0; i < 2 * words; i++) {
+                startWords[i] = readLong(position);
+                position += Long.BYTES;
+            }
+            startWordCount = words;
+        }
+
+        int count = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position >= length || shift >= Integer.SIZE) {
+                throw new IOException("Некорректное количество ходов в записи.");
+            }
+            int b = record[position++];
+            count |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (position + 2 * count > length) {
+            throw new IOException("Количество ходов не совпадает с длиной записи.");
+        }
+        if (moves.length < count) {
+            moves = new int[Math.max(count, moves.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            moves[i] = Move.of(record[position] & 0xFF, record[position + 1] & 0xFF);
+            position += 2;
+        }
+        moveCount = count;
+        gamesRead++;
+        return true;
+    }
+
+    /**
+     * Воспроизводит прочитанную партию в новой игре на новой доске с лагерями из записи.
+     *
+     * @return Игра в позиции после последнего хода партии.
+     */
+    public UgolkiGame replay() throws IOException {
+        Board board = new Board(width, height);
+        UgolkiGame game = new UgolkiGame(board, new Player("Player 1"), new Player("Player 2"),
+                new UgolkiPathChecker(board), new UgolkiWinCriteria(campWidth, campHeight));
+        replay(game);
+        return game;
+    }
+
+    /**
+     * Воспроизводит прочитанную партию в переданной игре, начиная ее заново. Ходы выполняются без
+     * полной проверки правил, проверяется только, что фигура принадлежит ходящей стороне, а целевая
+     * клетка пуста.
+     *
+     * @param game Игра с доской того же размера.
+     * @throws IOException Если размер доски не совпадает или ход в записи некорректен.
+     */
+    public void replay(UgolkiGame game) throws IOException {
+        start(game);
+
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (from >= bitBoard.getSize() || to >= bitBoard.getSize()
+                    || bitBoard.getColor(from) != game.getActiveColor() || !bitBoard.isEmpty(to)) {
+                throw new IOException("Некорректный ход " + (i + 1) + " в партии " + gamesRead);
+            }
+            game.makeMove(move);
+        }
+    }
+
+    /**
+     * Начинает в переданной игре прочитанную партию с ее начальной позиции, не выполняя ходов. Ходы
+     * можно затем выполнять по одному через {@link #getMove(int)}.
+     *
+     * @param game Игра с доской и лагерями того же размера.
+     * @throws IOException Если размер доски или лагерей не совпадает.
+     */
+    public void start(UgolkiGame game) throws IOException {
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        if (bitBoard.getWidth() != width || bitBoard.getHeight() != height) {
+            throw new IOException("Размер доски в записи " + width + "x" + height + " не совпадает с игрой.");
+        }
+        if (game.getWinCriteria().getCampWidth() != campWidth
+                || game.getWinCriteria().getCampHeight() != campHeight) {
+            throw new IOException("Размер лагеря в записи " + campWidth + "x" + campHeight + " не совпадает с игрой.");
+        }
+
+        BitBoard position = null;
+        if ((flags & GameRecordFormat.FLAG_CUSTOM_START) != 0) {
+            position = new BitBoard(bitBoard);
+            copyStartPosition(position);
+        }
+        game.setStartPosition(position, getFirstToMove());
+        game.startGame();
+    }
+
+    /**
+     * Записывает начальную позицию прочитанной партии в переданную позицию без создания объектов.
+     *
+     * @param position Позиция с доской того же размера.
+     * @return {@code false}, если партия начата со стандартной расстановки; позиция тогда не меняется.
+     */
+    public boolean copyStartPosition(BitBoard position) {
+        if ((flags & GameRecordFormat.FLAG_CUSTOM_START) == 0) {
+            return false;
+        }
+
+        position.clearAll();
+        for (int word = 0; word < startWordCount; word++) {
+            for (long mask = startWords[word]; mask != 0; mask &= mask - 1) {
+                position.set((word << 6) + Long.numberOfTrailingZeros(mask), Figure.Color.WHITE);
+            }
+            for (long mask = startWords[startWordCount + word]; mask != 0; mask &= mask - 1) {
+                position.set((word << 6) + Long.numberOfTrailingZeros(mask), Figure.Color.BLACK);
+            }
+        }
+        return true;
+    }
+
+    private long readLong(int position) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = value << 8 | (record[position + i] & 0xFF);
+        }
+        return value;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCampWidth() {
+        return campWidth;
+    }
+
+    public int getCampHeight() {
+        return campHeight;
+    }
+
+    public Figure.Color getFirstToMove() {
+        return (flags & GameRecordFormat.FLAG_BLACK_FIRST) != 0 ? Figure.Color.BLACK : Figure.Color.WHITE;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @param index Номер хода от 0
+     * @return Упакованный ход (см. {@link Move})
+     */
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public WinCheckResponse.Status getStatus() {
+        return WinCheckResponse.Status.values()[outcome & GameRecordFormat.STATUS_MASK];
+    }
+
+    /**
+     * @return Победитель партии или {@code null}.
+     */
+    public Figure.Color getWinner() {
+        int winner = outcome >>> GameRecordFormat.WINNER_SHIFT;
+        return winner == 0 ? null : Figure.Color.values()[winner - 1];
+    }
+
+    public long getGamesRead() {
+        return gamesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Использование: GameRecordReader <файл>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long totalMoves = 0;
+        UgolkiGame game = null;
+        try (GameRecordReader reader = new GameRecordReader(new FileInputStream(args[0]))) {
+            while (reader.next()) {
+                if (game == null || game.getBoard().getWidth() != reader.getWidth()
+                        || game.getBoard().getHeight() != reader.getHeight()
+                        || game.getWinCriteria().getCampWidth() != reader.getCampWidth()
+                        || game.getWinCriteria().getCampHeight() != reader.getCampHeight()) {
+                    game = reader.replay();
+                } else {
+                    reader.replay(game);
+                }
+                totalMoves += reader.getMoveCount();
+            }
+
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            System.out.printf("%d games, %d moves in %d ms, %d games/s, %d moves/s%n",
+                    reader.getGamesRead(), totalMoves, elapsedNanos / 1_000_000,
+                    reader.getGamesRead() * 1_000_000_000L / elapsedNanos,
+                    totalMoves * 1_000_000_000L / elapsedNanos);
+        }
+    }
+}
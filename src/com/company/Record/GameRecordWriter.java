@@ -0,0 +1,243 @@
+package com.company.Record;
+
+import com.company.Game.GameListener;
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Game.WinCheckResponse;
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Потоковая запись партий в формате {@link GameRecordFormat}.
+ *
+ * Писатель можно подключить к игре как наблюдателя ({@link UgolkiGame#setGameListener}): ходы партии
+ * копятся в буфере по два байта и записываются одной записью, когда партия заканчивается, начинается
+ * следующая партия или писатель закрывается. Ошибки ввода-вывода в уведомлениях игры передаются как
+ * {@link UncheckedIOException}.
+ */
+public class GameRecordWriter implements GameListener, Closeable {
+    /**
+     * Префикс параметра командной строки с файлом, в который записываются сыгранные партии.
+     */
+    public static final String OPTION = "--record=";
+    private static final int INITIAL_MOVES = 128;
+    private static final int FILE_BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordData = new DataOutputStream(record);
+    private byte[] moves = new byte[2 * INITIAL_MOVES];
+    private int moveCount;
+    private boolean recording;
+    private BitBoard startPosition;
+    private Figure.Color firstToMove;
+    private int width;
+    private int height;
+    private int campWidth;
+    private int campHeight;
+    private int outcome;
+    private long gamesWritten;
+
+    /**
+     * Создает писателя и записывает заголовок файла.
+     *
+     * @param out Поток вывода. Буферизация потока - забота вызывающего кода.
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(GameRecordFormat.MAGIC);
+        out.write(GameRecordFormat.VERSION);
+    }
+
+    /**
+     * Создает писателя, который записывает партии в файл через буфер. Существующий файл перезаписывается.
+     *
+     * @param path Путь к файлу
+     */
+    public static GameRecordWriter open(String path) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(path), FILE_BUFFER_SIZE);
+        try {
+            return new GameRecordWriter(out);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void gameStarted(UgolkiGame game) {
+        try {
+            finishGame();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        recording = true;
+        moveCount = 0;
+        width = bitBoard.getWidth();
+        height = bitBoard.getHeight();
+        campWidth = game.getWinCriteria().getCampWidth();
+        campHeight = game.getWinCriteria().getCampHeight();
+        startPosition = game.getStartPosition();
+        firstToMove = game.getActiveColor();
+        outcome = game.getCurrentStatus().ordinal();
+    }
+
+    @Override
+    public void moveMade(UgolkiGame game, int move) {
+        if (!recording) {
+            return;
+        }
+
+        addMove(move);
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        outcome = encodeOutcome(status, game.getWinnerColor());
+        if (status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT) {
+            try {
+                finishGame();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Записывает партию со стандартным лагерем целиком без подключения к игре.
+     *
+     * @param width         Ширина доски.
+     * @param height        Высота доски.
+     * @param startPosition Начальная позиция или {@code null} для стандартной расстановки.
+     * @param firstToMove   Цвет стороны, делающей первый ход.
+     * @param moves         Упакованные ходы (см. {@link Move}).
+     * @param count         Количество ходов.
+     * @param status        Статус партии после последнего хода.
+     * @param winner        Победитель или {@code null}.
+     */
+    public void writeGame(int width, int height, BitBoard startPosition, Figure.Color firstToMove,
+                          int[] moves, int count, WinCheckResponse.Status status, Figure.Color winner)
+            throws IOException {
+        writeGame(width, height, UgolkiWinCriteria.STANDARD_CAMP_WIDTH, UgolkiWinCriteria.STANDARD_CAMP_HEIGHT,
+                startPosition, firstToMove, moves, count, status, winner);
+    }
+
+    /**
+     * Записывает партию целиком без подключения к игре.
+     *
+     * @param width         Ширина доски.
+     * @param height        Высота доски.
+     * @param campWidth     Ширина лагеря.
+     * @param campHeight    Высота лагеря.
+     * @param startPosition Начальная позиция или {@code null} для стандартной расстановки.
+     * @param firstToMove   Цвет стороны, делающей первый ход.
+     * @param moves         Упакованные ходы (см. {@link Move}).
+     * @param count         Количество ходов.
+     * @param status        Статус партии после последнего хода.
+     * @param winner        Победитель или {@code null}.
+     */
+    public void writeGame(int width, int height, int campWidth, int campHeight, BitBoard startPosition,
+                          Figure.Color firstToMove, int[] moves, int count, WinCheckResponse.Status status,
+                          Figure.Color winner) throws IOException {
+        finishGame();
+
+        recording = true;
+        moveCount = 0;
+        this.width = width;
+        this.height = height;
+        this.campWidth = campWidth;
+        this.campHeight = campHeight;
+        this.startPosition = startPosition;
+        this.firstToMove = firstToMove;
+        for (int i = 0; i < count; i++) {
+            addMove(moves[i]);
+        }
+        outcome = encodeOutcome(status, winner);
+        finishGame();
+    }
+
+    /**
+     * Записывает незаконченную партию, если она есть.
+     */
+    public void flush() throws IOException {
+        finishGame();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    public long getGamesWritten() {
+        return gamesWritten;
+    }
+
+    private void addMove(int move) {
+        if (2 * moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[2 * moveCount] = (byte) Move.from(move);
+        moves[2 * moveCount + 1] = (byte) Move.to(move);
+        moveCount++;
+    }
+
+    private void finishGame() throws IOException {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+
+        int flags = 0;
+        if (startPosition != null) {
+            flags |= GameRecordFormat.FLAG_CUSTOM_START;
+        }
+        if (firstToMove == Figure.Color.BLACK) {
+            flags |= GameRecordFormat.FLAG_BLACK_FIRST;
+        }
+        boolean standardCamp = campWidth == UgolkiWinCriteria.STANDARD_CAMP_WIDTH
+                && campHeight == UgolkiWinCriteria.STANDARD_CAMP_HEIGHT;
+        if (!standardCamp) {
+            flags |= GameRecordFormat.FLAG_CAMP;
+        }
+
+        record.reset();
+        recordData.writeByte(width);
+        recordData.writeByte(height);
+        recordData.writeByte(flags);
+        recordData.writeByte(outcome);
+        if (!standardCamp) {
+            recordData.writeByte(campWidth);
+            recordData.writeByte(campHeight);
+        }
+        if (startPosition != null) {
+            for (Figure.Color color : new Figure.Color[] { Figure.Color.WHITE, Figure.Color.BLACK }) {
+                for (int word = 0; word < startPosition.getWordCount(); word++) {
+                    recordData.writeLong(startPosition.getWord(color, word));
+                }
+            }
+        }
+        GameRecordFormat.writeVarint(recordData, moveCount);
+        recordData.write(moves, 0, 2 * moveCount);
+
+        GameRecordFormat.writeVarint(out, record.size());
+        record.writeTo(out);
+        gamesWritten++;
+    }
+
+    private static int encodeOutcome(WinCheckResponse.Status status, Figure.Color winner) {
+        int winnerCode = winner == null ? 0 : winner.ordinal() + 1;
+        return status.ordinal() | winnerCode << GameRecordFormat.WINNER_SHIFT;
+    }
+}
@@ -0,0 +1,298 @@
+package com.company.Server;
+
+import com.company.Metrics.Metrics;
+import com.company.Metrics.MetricsServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервер, на котором одновременно идет много независимых партий. Клиенты подключаются по TCP и
+ * обмениваются строками текста в кодировке UTF-8.
+ *
+ * Команды (по одной в строке), ответ на каждую - одна строка, начинающаяся с "OK" или "ERR":
+ * <ul>
+ *     <li>{@code NEW [зерно]} - создать партию, ответ {@code OK <номер> <статус> <цвет>};</li>
+ *     <li>{@code MOVE <номер> <откуда> <куда>} - сделать ход, ответ {@code OK <статус> <цвет>};</li>
+ *     <li>{@code MOVES <номер>} - допустимые ходы через запятую;</li>
+ *     <li>{@code BOARD <номер>} - позиция, статус и цвет;</li>
+ *     <li>{@code CLOSE <номер>} - удалить партию;</li>
+ *     <li>{@code QUIT} - закрыть соединение.</li>
+ * </ul>
+ * Цвет в ответе - сторона, которая ходит следующей, или победитель, если партия окончена.
+ *
+ * Каждое соединение обслуживает отдельный поток: виртуальный, если JVM их поддерживает (Java 21+),
+ * иначе обычный поток из кэширующего пула. Общих блокировок нет: партии хранятся в
+ * {@link ConcurrentHashMap}, а ходы в одной партии упорядочиваются блокировкой ее сессии.
+ *
+ * Число партий ограничено: команда {@code NEW} отклоняется, когда партий уже {@code максимум}. Партии,
+ * к которым не обращались дольше времени простоя, удаляются фоновым потоком, поэтому клиенты, которые
+ * отключились без {@code CLOSE}, не накапливают партии.
+ *
+ * Использование: {@code GameServer [порт] [--max-sessions=<число>] [--idle-timeout=<секунды>]}.
+ * С {@code -Dugolki.metrics.port=<порт>} сервер собирает метрики правил игры и отдает их локально
+ * (см. {@link Metrics}).
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 7777;
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 600;
+    public static final String MAX_SESSIONS_OPTION = "--max-sessions=";
+    public static final String IDLE_TIMEOUT_OPTION = "--idle-timeout=";
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<Long, GameSession>();
+    // Число партий вместе с местами, занятыми командами NEW, которые еще выполняются
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService connections = newConnectionExecutor();
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private ScheduledExecutorService reaper;
+    private ServerSocket serverSocket;
+
+    public GameServer() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * @param maxSessions        Наибольшее число одновременных партий.
+     * @param idleTimeoutSeconds Время без обращений, после которого партия удаляется.
+     */
+    public GameServer(int maxSessions, long idleTimeoutSeconds) {
+        if (maxSessions <= 0 || idleTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("Число партий и время простоя должны быть положительными.");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+    }
+
+    /**
+     * Открывает порт для подключений.
+     *
+     * @param port Порт или 0, чтобы выбрать свободный.
+     * @return Порт, на котором работает сервер.
+     */
+    public int bind(int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(port), 1024);
+
+        long periodNanos = Math.max(TimeUnit.SECONDS.toNanos(1), idleTimeoutNanos / 4);
+        reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(this::removeIdleSessions, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Принимает подключения до вызова {@link #stop()}.
+     */
+    public void serve() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            }
+        } catch (SocketException e) {
+            if (!serverSocket.isClosed()) {
+                throw e;
+            }
+        }
+    }
+
+    public void stop() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Удаляет партии, к которым не обращались дольше времени простоя.
+     *
+     * @return Количество удаленных партий.
+     */
+    public int removeIdleSessions() {
+        int removed = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.isIdle(idleTimeoutNanos) && removeSession(session)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean removeSession(GameSession session) {
+        if (sessions.remove(session.getId(), session)) {
+            sessionCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Занимает место для новой партии. Если мест нет, сначала удаляются простаивающие партии.
+     */
+    private void reserveSession() throws IllegalArgumentException {
+        if (sessionCount.incrementAndGet() <= maxSessions) {
+            return;
+        }
+        sessionCount.decrementAndGet();
+        removeIdleSessions();
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            sessionCount.decrementAndGet();
+            throw new IllegalArgumentException("Достигнуто наибольшее число партий: " + maxSessions);
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            connection.setTcpNoDelay(true);
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                out.write(execute(line));
+                out.write('\n');
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Клиент отключился, партии остаются доступными другим соединениям
+        }
+    }
+
+    /**
+     * Выполняет одну команду протокола.
+     *
+     * @param line Строка команды.
+     * @return Строка ответа без перевода строки.
+     */
+    public String execute(String line) {
+        String[] parts = line.trim().split("\\s+");
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "NEW": {
+                    long seed = parts.length > 1 ? parseNumber(parts[1]) : ThreadLocalRandom.current().nextLong();
+                    reserveSession();
+                    GameSession session = new GameSession(nextId.getAndIncrement(), seed);
+                    sessions.put(session.getId(), session);
+                    return "OK " + session.getId() + " " + session.status();
+                }
+                case "MOVE":
+                    requireArguments(parts, 4);
+                    return "OK " + getSession(parts[1]).move(parts[2].toUpperCase(), parts[3].toUpperCase());
+                case "MOVES":
+                    requireArguments(parts, 2);
+                    return "OK " + getSession(parts[1]).legalMoves();
+                case "BOARD":
+                    requireArguments(parts, 2);
+                    return "OK " + getSession(parts[1]).board();
+                case "CLOSE":
+                    requireArguments(parts, 2);
+                    removeSession(getSession(parts[1]));
+                    return "OK";
+                default:
+                    return "ERR Неизвестная команда: " + parts[0];
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private GameSession getSession(String id) throws IllegalArgumentException {
+        GameSession session = sessions.get(parseNumber(id));
+        if (session == null) {
+            throw new IllegalArgumentException("Партия " + id + " не найдена.");
+        }
+        session.touch();
+        return session;
+    }
+
+    private static void requireArguments(String[] parts, int count) throws IllegalArgumentException {
+        if (parts.length < count) {
+            throw new IllegalArgumentException("Недостаточно аргументов команды " + parts[0]);
+        }
+    }
+
+    private static long parseNumber(String value) throws IllegalArgumentException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное число: " + value, e);
+        }
+    }
+
+    /**
+     * Исполнитель "поток на соединение": виртуальные потоки, если они есть в JVM, иначе кэширующий пул
+     * потоков-демонов.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(null, runnable, "game-connection", 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int maxSessions = DEFAULT_MAX_SESSIONS;
+        long idleTimeout = DEFAULT_IDLE_TIMEOUT_SECONDS;
+        for (String arg : args) {
+            if (arg.startsWith(MAX_SESSIONS_OPTION)) {
+                maxSessions = Integer.parseInt(arg.substring(MAX_SESSIONS_OPTION.length()));
+            } else if (arg.startsWith(IDLE_TIMEOUT_OPTION)) {
+                idleTimeout = Long.parseLong(arg.substring(IDLE_TIMEOUT_OPTION.length()));
+            } else {
+                port = Integer.parseInt(arg);
+            }
+        }
+
+        GameServer server = new GameServer(maxSessions, idleTimeout);
+        port = server.bind(port);
+        System.out.println("Сервер игры запущен на порту " + port);
+        MetricsServer metrics = Metrics.startServerIfConfigured();
+        if (metrics != null) {
+            System.out.println("Метрики: http://127.0.0.1:" + metrics.getPort() + "/metrics");
+        }
+        server.serve();
+    }
+}
@@ -0,0 +1,156 @@
+package com.company.Server;
+
+import com.company.Game.PositionFormat;
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiPathChecker;
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Game.WinCheckResponse;
+import com.company.Metrics.Metrics;
+import com.company.Model.Board;
+import com.company.Model.Player;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Одна партия на сервере. Все обращения к игре выполняются под блокировкой сессии, поэтому разные
+ * соединения могут управлять одной партией, а партии не мешают друг другу.
+ */
+public class GameSession {
+
+    private final long id;
+    private final UgolkiGame game;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int[] moves;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    /**
+     * @param id   Номер сессии.
+     * @param seed Зерно для назначения цветов игрокам.
+     */
+    public GameSession(long id, long seed) {
+        this.id = id;
+        Board board = new Board();
+        this.game = new UgolkiGame(board, new Player("Player 1"), new Player("Player 2"),
+                new UgolkiPathChecker(board), new UgolkiWinCriteria(), new SplittableRandom(seed));
+        game.startGame();
+        this.moves = new int[game.getMaxMoves()];
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Отмечает обращение к партии; сервер удаляет партии, к которым долго не обращались.
+     */
+    public void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    /**
+     * @param timeoutNanos Допустимое время без обращений
+     * @return {@code true}, если к партии не обращались дольше указанного времени.
+     */
+    public boolean isIdle(long timeoutNanos) {
+        return System.nanoTime() - lastAccessNanos > timeoutNanos;
+    }
+
+    /**
+     * Выполняет ход активного игрока.
+     *
+     * @param from Адрес начальной клетки.
+     * @param to   Адрес целевой клетки.
+     * @throws IllegalArgumentException Если партия окончена, адрес не найден или ход недопустим.
+     * @return Статус партии и цвет стороны, которая ходит следующей.
+     */
+    public String move(String from, String to) throws IllegalArgumentException {
+        lock.lock();
+        try {
+            if (isOver()) {
+                throw new IllegalArgumentException("Партия окончена.");
+            }
+
+            long start = Metrics.ENABLED ? System.nanoTime() : 0;
+            int move = game.parseMove(from, to);
+            int count = game.generateMoves(moves, 0);
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == move) {
+                    game.makeMove(move);
+                    if (Metrics.ENABLED) {
+                        Metrics.MOVES.increment();
+                        Metrics.SESSION_MOVE.recordSince(start);
+                    }
+                    return describe();
+                }
+            }
+            if (Metrics.ENABLED) {
+                Metrics.ILLEGAL_MOVES.increment();
+            }
+            throw new IllegalArgumentException("Недопустимый ход: " + from + " " + to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Все допустимые ходы активного игрока через запятую.
+     */
+    public String legalMoves() {
+        lock.lock();
+        try {
+            if (isOver()) {
+                return "";
+            }
+
+            StringBuilder builder = new StringBuilder();
+            int count = game.generateMoves(moves, 0);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(game.moveToString(moves[i]));
+            }
+            return builder.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Позиция в записи {@link PositionFormat}, статус и цвет стороны, которая ходит следующей.
+     */
+    public String board() {
+        lock.lock();
+        try {
+            return PositionFormat.format(game.getBoard().getBitBoard()) + " " + describe();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Статус партии и цвет стороны, которая ходит следующей, или победителя.
+     */
+    public String status() {
+        lock.lock();
+        try {
+            return describe();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String describe() {
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        if (status == WinCheckResponse.Status.FINISHED) {
+            return status + " " + game.getWinnerColor();
+        }
+        return status + " " + game.getActiveColor();
+    }
+
+    private boolean isOver() {
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        return status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT;
+    }
+}
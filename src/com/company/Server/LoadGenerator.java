@@ -0,0 +1,209 @@
+package com.company.Server;
+
+import com.company.Log.EventLog;
+import com.company.Log.Level;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Клиент нагрузочного тестирования {@link GameServer}.
+ *
+ * Открывает заданное число соединений, в каждом создает несколько партий и по очереди делает в них
+ * случайные допустимые ходы. Задержка хода - время от отправки команды MOVE до получения ответа.
+ * В конце выводятся количество ходов в секунду и перцентили задержки.
+ *
+ * Использование: {@code LoadGenerator [хост] [порт] [соединения] [партий на соединение] [ходов на партию]}.
+ * Если хост равен "local", сервер запускается в этом же процессе на свободном порту с ограничением
+ * числа партий не меньше {@code соединения * партий на соединение}.
+ */
+public class LoadGenerator {
+    private static final int DEFAULT_CONNECTIONS = 100;
+    private static final int DEFAULT_SESSIONS = 10;
+    private static final int DEFAULT_MOVES = 40;
+
+    private final String host;
+    private final int port;
+
+    public LoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Запускает нагрузку и ждет ее завершения.
+     *
+     * @return Задержки всех ходов в наносекундах, отсортированные по возрастанию.
+     */
+    public long[] run(int connections, int sessions, int moves) throws IOException, InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        List<Future<long[]>> futures = new ArrayList<Future<long[]>>();
+        for (int i = 0; i < connections; i++) {
+            long seed = i;
+            futures.add(clients.submit(() -> play(seed, sessions, moves)));
+        }
+
+        long[][] parts = new long[connections][];
+        int total = 0;
+        try {
+            for (int i = 0; i < connections; i++) {
+                parts[i] = futures.get(i).get();
+                total += parts[i].length;
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Ошибка клиента нагрузки", e.getCause());
+        } finally {
+            clients.shutdownNow();
+        }
+
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, latencies, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    /**
+     * Одно соединение: создает партии и делает в них ходы по кругу, пока в каждой не будет сделано
+     * нужное число ходов или партия не закончится.
+     */
+    private long[] play(long seed, int sessions, int moves) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[sessions * moves];
+        int count = 0;
+
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+
+            String[] ids = new String[sessions];
+            boolean[] finished = new boolean[sessions];
+            for (int i = 0; i < sessions; i++) {
+                String response = request(in, out, "NEW " + random.nextLong());
+                if (!response.startsWith("OK")) {
+                    throw new IOException("Сервер не создал партию: " + response);
+                }
+                ids[i] = response.split(" ")[1];
+            }
+
+            for (int round = 0; round < moves; round++) {
+                for (int i = 0; i < sessions; i++) {
+                    if (finished[i]) {
+                        continue;
+                    }
+
+                    String legal = request(in, out, "MOVES " + ids[i]).substring("OK".length()).trim();
+                    if (legal.isEmpty()) {
+                        finished[i] = true;
+                        continue;
+                    }
+                    String[] options = legal.split(",");
+                    String move = options[random.nextInt(options.length)];
+
+                    long start = System.nanoTime();
+                    String response = request(in, out, "MOVE " + ids[i] + " " + move);
+                    latencies[count++] = System.nanoTime() - start;
+                    if (!response.startsWith("OK")) {
+                        throw new IOException("Сервер отклонил ход " + move + ": " + response);
+                    }
+                }
+            }
+
+            for (String id : ids) {
+                request(in, out, "CLOSE " + id);
+            }
+            out.write("QUIT\n");
+            out.flush();
+        }
+
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static String request(BufferedReader in, Writer out, String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+
+        String response = in.readLine();
+        if (response == null) {
+            throw new IOException("Сервер закрыл соединение");
+        }
+        return response;
+    }
+
+    /**
+     * Перцентиль отсортированного массива задержек.
+     *
+     * @param sorted     Отсортированные задержки.
+     * @param percentile Перцентиль от 0 до 100.
+     * @return Значение перцентиля или 0 для пустого массива.
+     */
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = args.length > 0 ? args[0] : "local";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CONNECTIONS;
+        int sessions = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SESSIONS;
+        int moves = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_MOVES;
+
+        GameServer server = null;
+        if (host.equals("local")) {
+            server = new GameServer(Math.max(GameServer.DEFAULT_MAX_SESSIONS, connections * sessions),
+                    GameServer.DEFAULT_IDLE_TIMEOUT_SECONDS);
+            port = server.bind(0);
+            host = "127.0.0.1";
+            GameServer localServer = server;
+            Thread thread = new Thread(() -> {
+                try {
+                    localServer.serve();
+                } catch (IOException e) {
+                    EventLog.getDefault().log(Level.ERROR, "server", "Ошибка сервера: " + e.getMessage());
+                }
+            }, "game-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long start = System.nanoTime();
+        long[] latencies = new LoadGenerator(host, port).run(connections, sessions, moves);
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+        System.out.printf("%d connections, %d sessions, %d moves in %d ms, %d moves/s%n",
+                connections, connections * sessions, latencies.length, elapsedNanos / 1_000_000,
+                latencies.length * 1_000_000_000L / elapsedNanos);
+        System.out.printf("move latency p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+                (latencies.length == 0 ? 0 : latencies[latencies.length - 1]) / 1e6);
+
+        if (server != null) {
+            server.stop();
+        }
+    }
+}
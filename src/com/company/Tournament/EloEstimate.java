@@ -0,0 +1,95 @@
+package com.company.Tournament;
+
+/**
+ * Оценка разницы рейтингов Эло по результатам матча с доверительным интервалом.
+ *
+ * Средний набранный процент очков переводится в разницу рейтингов по логистической модели Эло.
+ * Интервал строится по нормальному приближению для среднего: стандартная ошибка процента очков
+ * считается по разбросу результатов отдельных партий, и границы интервала процента переводятся в Эло
+ * той же формулой.
+ */
+public class EloEstimate {
+    /**
+     * Квантиль нормального распределения для 95% доверительного интервала.
+     */
+    public static final double Z_95 = 1.959964;
+    private static final double MAX_ELO = 1000;
+
+    private final int wins;
+    private final int draws;
+    private final int losses;
+
+    public EloEstimate(int wins, int draws, int losses) {
+        if (wins < 0 || draws < 0 || losses < 0) {
+            throw new IllegalArgumentException("Количество партий не может быть отрицательным.");
+        }
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+    }
+
+    public int getGames() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * @return Доля набранных очков от 0 до 1.
+     */
+    public double getScore() {
+        int games = getGames();
+        return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+    }
+
+    /**
+     * @return Разница рейтингов в пользу первого движка.
+     */
+    public double getElo() {
+        return toElo(getScore());
+    }
+
+    /**
+     * @return Половина ширины 95% доверительного интервала для доли очков.
+     */
+    public double getScoreMargin() {
+        int games = getGames();
+        if (games == 0) {
+            return 0.5;
+        }
+
+        double score = getScore();
+        double variance = (wins * square(1 - score) + draws * square(0.5 - score) + losses * square(score)) / games;
+        return Z_95 * Math.sqrt(variance / games);
+    }
+
+    public double getLowerElo() {
+        return toElo(getScore() - getScoreMargin());
+    }
+
+    public double getUpperElo() {
+        return toElo(getScore() + getScoreMargin());
+    }
+
+    /**
+     * Перевод доли очков в разницу рейтингов. Результаты 0 и 1 ограничиваются значением +-1000.
+     */
+    public static double toElo(double score) {
+        if (score <= 0) {
+            return -MAX_ELO;
+        }
+        if (score >= 1) {
+            return MAX_ELO;
+        }
+        // Прибавление нуля убирает отрицательный ноль при счете 50%
+        return Math.max(-MAX_ELO, Math.min(MAX_ELO, -400 * Math.log10(1 / score - 1))) + 0.0;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%d =%d -%d, score %.1f%%, Elo %+.0f [%+.0f, %+.0f]",
+                wins, draws, losses, 100 * getScore(), getElo(), getLowerElo(), getUpperElo());
+    }
+}
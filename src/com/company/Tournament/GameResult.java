@@ -0,0 +1,108 @@
+package com.company.Tournament;
+
+/**
+ * Результат одной партии турнира.
+ */
+public class GameResult {
+
+    /**
+     * Исход партии.
+     */
+    public enum Outcome {
+        WHITE_WINS,
+        BLACK_WINS,
+        DEAD_HEAT,
+        /**
+         * Партия остановлена по лимиту полуходов.
+         */
+        MOVE_LIMIT,
+        /**
+         * У активной стороны нет ходов.
+         */
+        NO_MOVES
+    }
+
+    private final int index;
+    private final int whiteEngine;
+    private final int blackEngine;
+    private final Outcome outcome;
+    private final int plies;
+    private final long elapsedMillis;
+    private final int[] moves;
+
+    public GameResult(int index, int whiteEngine, int blackEngine, Outcome outcome, int plies, long elapsedMillis) {
+        this(index, whiteEngine, blackEngine, outcome, plies, elapsedMillis, new int[0]);
+    }
+
+    /**
+     * @param moves Упакованные ходы партии для записи в архив.
+     */
+    public GameResult(int index, int whiteEngine, int blackEngine, Outcome outcome, int plies, long elapsedMillis,
+                      int[] moves) {
+        this.index = index;
+        this.whiteEngine = whiteEngine;
+        this.blackEngine = blackEngine;
+        this.outcome = outcome;
+        this.plies = plies;
+        this.elapsedMillis = elapsedMillis;
+        this.moves = moves;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getWhiteEngine() {
+        return whiteEngine;
+    }
+
+    public int getBlackEngine() {
+        return blackEngine;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public int getPlies() {
+        return plies;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return Упакованные ходы партии (см. {@link com.company.Game.Move}).
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Очки движка в партии: 1 за победу, 0.5 за ничью, 0 за поражение.
+     *
+     * @param engine Номер движка
+     * @return Очки или {@link Double#NaN}, если движок не участвовал в партии
+     */
+    public double getScore(int engine) {
+        if (engine != whiteEngine && engine != blackEngine) {
+            return Double.NaN;
+        }
+        switch (outcome) {
+            case WHITE_WINS:
+                return engine == whiteEngine ? 1 : 0;
+            case BLACK_WINS:
+                return engine == blackEngine ? 1 : 0;
+            default:
+                return 0.5;
+        }
+    }
+
+    /**
+     * Строка результата в формате CSV: номер, белые, черные, исход, полуходы, миллисекунды.
+     */
+    public String toCsv() {
+        return index + "," + whiteEngine + "," + blackEngine + "," + outcome + "," + plies + "," + elapsedMillis;
+    }
+}
@@ -0,0 +1,335 @@
+package com.company.Tournament;
+
+import com.company.Engine.ComputerPlayer;
+import com.company.Engine.Players;
+import com.company.Game.GameVariant;
+import com.company.Game.Move;
+import com.company.Game.UgolkiGame;
+import com.company.Game.WinCheckResponse;
+import com.company.Metrics.Metrics;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+import com.company.Record.GameRecordWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Турнир компьютерных игроков без интерфейса: каждая пара движков играет заданное число партий.
+ *
+ * Партии идут параллельно на пуле потоков, каждая со своей {@link UgolkiGame}. Движки создаются по
+ * описаниям {@link Players} один раз на поток и переиспользуются в следующих партиях этого потока,
+ * поэтому потоки не делят ни игр, ни таблиц транспозиций, и скорость растет с числом ядер. Цвета
+ * чередуются между партиями пары. Результаты партий записываются в CSV по мере завершения, в конце
+ * выводятся разницы рейтингов Эло для каждой пары.
+ *
+ * Партии можно также сохранять в архив {@link GameRecordWriter}, например, для построения книги дебютов.
+ * В архив партии записываются по порядку номеров, поэтому номер записи в архиве совпадает с колонкой
+ * {@code game} в CSV.
+ *
+ * Использование: {@code Tournament <партий на пару> <потоки> <файл результатов> [--archive=<файл>]
+ * [--variant=<вариант>] <движок> <движок> [...]}, например, {@code Tournament 200 8 results.csv alphabeta:50 mcts:50}.
+ * Вариант игры задается в записи {@link GameVariant}, по умолчанию играется стандартный 8x8.
+ */
+public class Tournament {
+    /**
+     * Лимит полуходов, после которого партия считается ничьей.
+     */
+    public static final int MAX_PLIES = 600;
+    public static final String CSV_HEADER = "game,white,black,outcome,plies,millis";
+    public static final String ARCHIVE_OPTION = "--archive=";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private final List<String> specs;
+    private final int gamesPerPair;
+    private final int threads;
+    private final ThreadLocal<ComputerPlayer[]> engines;
+    // Все созданные наборы движков, чтобы остановить их потоки поиска после турнира
+    private final Queue<ComputerPlayer[]> createdEngines = new ConcurrentLinkedQueue<ComputerPlayer[]>();
+    private GameRecordWriter archive;
+    private GameVariant variant = GameVariant.STANDARD;
+
+    /**
+     * @param specs        Описания движков, не меньше двух.
+     * @param gamesPerPair Количество партий для каждой пары движков.
+     * @param threads      Количество одновременно играемых партий.
+     * @throws IllegalArgumentException Если описание не задает компьютерного игрока.
+     */
+    public Tournament(List<String> specs, int gamesPerPair, int threads) throws IllegalArgumentException {
+        if (specs.size() < 2) {
+            throw new IllegalArgumentException("Для турнира нужно не меньше двух движков.");
+        }
+        if (gamesPerPair < 1 || threads < 1) {
+            throw new IllegalArgumentException("Количество партий и потоков должно быть положительным.");
+        }
+
+        this.specs = new ArrayList<String>(specs);
+        this.gamesPerPair = gamesPerPair;
+        this.threads = threads;
+        this.engines = ThreadLocal.withInitial(this::createEngines);
+        for (String spec : specs) {
+            if (!Players.isComputer(spec)) {
+                throw new IllegalArgumentException("В турнире играют только компьютерные игроки: " + spec);
+            }
+        }
+    }
+
+    /**
+     * @param archive Архив, в который записываются сыгранные партии в порядке их номеров, или {@code null}.
+     */
+    public void setArchive(GameRecordWriter archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * @param variant Вариант игры для всех партий турнира.
+     */
+    public void setVariant(GameVariant variant) {
+        this.variant = variant;
+    }
+
+    public GameVariant getVariant() {
+        return variant;
+    }
+
+    /**
+     * Играет все партии турнира.
+     *
+     * @param out Поток для результатов партий в формате CSV.
+     * @return Результаты партий в порядке номеров.
+     */
+    public List<GameResult> run(Writer out) throws IOException, InterruptedException {
+        int engineCount = specs.size();
+        int total = engineCount * (engineCount - 1) / 2 * gamesPerPair;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<GameResult> completion = new ExecutorCompletionService<GameResult>(pool);
+
+        int index = 0;
+        for (int first = 0; first < engineCount; first++) {
+            for (int second = first + 1; second < engineCount; second++) {
+                for (int game = 0; game < gamesPerPair; game++) {
+                    int gameIndex = index++;
+                    int a = first;
+                    int b = second;
+                    completion.submit(() -> play(gameIndex, a, b));
+                }
+            }
+        }
+
+        GameResult[] results = new GameResult[total];
+        // Следующая партия для архива: завершившиеся раньше нее партии ждут в results.
+        int nextToArchive = 0;
+        long start = System.currentTimeMillis();
+        out.write(CSV_HEADER + System.lineSeparator());
+        try {
+            for (int done = 1; done <= total; done++) {
+                GameResult result = completion.take().get();
+                results[result.getIndex()] = result;
+                out.write(result.toCsv() + System.lineSeparator());
+                if (archive != null) {
+                    while (nextToArchive < total && results[nextToArchive] != null) {
+                        archive(results[nextToArchive++]);
+                    }
+                }
+
+                if (done % Math.max(1, total / 10) == 0 || done == total) {
+                    long elapsed = Math.max(1, System.currentTimeMillis() - start);
+                    System.out.printf("%d/%d games, %.2f games/s%n", done, total, done * 1000.0 / elapsed);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка в партии турнира", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            // При ошибке партии других потоков еще идут: их движки останавливаются после завершения пула.
+            pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            shutdownEngines();
+            out.flush();
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Играет одну партию между двумя движками. Движки играют белыми по очереди: в партиях с четным
+     * номером белыми играет первый.
+     */
+    private GameResult play(int index, int first, int second) {
+        ComputerPlayer[] players = engines.get();
+        UgolkiGame game = variant.createGame(players[first], players[second]);
+        boolean firstWhite = index % 2 == 0;
+        game.setPlayer1Color(firstWhite ? Figure.Color.WHITE : Figure.Color.BLACK);
+        game.startGame();
+
+        int whiteEngine = firstWhite ? first : second;
+        int blackEngine = firstWhite ? second : first;
+
+        long start = System.currentTimeMillis();
+        GameResult.Outcome outcome = GameResult.Outcome.MOVE_LIMIT;
+        int[] moves = new int[MAX_PLIES];
+        int plies = 0;
+        // Прерывание означает остановку турнира из-за ошибки в другой партии; результат тогда не используется.
+        while (plies < MAX_PLIES && !Thread.currentThread().isInterrupted()) {
+            int move = ((ComputerPlayer) game.getActivePlayer()).selectMove(game);
+            if (move == Move.NONE) {
+                outcome = GameResult.Outcome.NO_MOVES;
+                break;
+            }
+
+            game.makeMove(move);
+            moves[plies++] = move;
+
+            WinCheckResponse.Status status = game.getCurrentStatus();
+            if (status == WinCheckResponse.Status.DEAD_HEAT) {
+                outcome = GameResult.Outcome.DEAD_HEAT;
+                break;
+            }
+            if (status == WinCheckResponse.Status.FINISHED) {
+                outcome = game.getWinnerColor() == Figure.Color.WHITE
+                        ? GameResult.Outcome.WHITE_WINS : GameResult.Outcome.BLACK_WINS;
+                break;
+            }
+        }
+
+        return new GameResult(index, whiteEngine, blackEngine, outcome, plies, System.currentTimeMillis() - start,
+                Arrays.copyOf(moves, plies));
+    }
+
+    private void archive(GameResult result) throws IOException {
+        WinCheckResponse.Status status;
+        Figure.Color winner = null;
+        switch (result.getOutcome()) {
+            case WHITE_WINS:
+                status = WinCheckResponse.Status.FINISHED;
+                winner = Figure.Color.WHITE;
+                break;
+            case BLACK_WINS:
+                status = WinCheckResponse.Status.FINISHED;
+                winner = Figure.Color.BLACK;
+                break;
+            case DEAD_HEAT:
+                status = WinCheckResponse.Status.DEAD_HEAT;
+                break;
+            default:
+                status = WinCheckResponse.Status.IN_PROGRESS;
+                break;
+        }
+
+        archive.writeGame(variant.getWidth(), variant.getHeight(), variant.getCampWidth(), variant.getCampHeight(),
+                null, Figure.Color.WHITE, result.getMoves(), result.getMoves().length, status, winner);
+    }
+
+    /**
+     * Считает результаты матча первого движка против второго.
+     *
+     * @param results Результаты партий турнира.
+     * @param first   Номер первого движка.
+     * @param second  Номер второго движка.
+     * @return Оценка разницы рейтингов в пользу первого движка.
+     */
+    public static EloEstimate estimate(List<GameResult> results, int first, int second) {
+        int wins = 0;
+        int draws = 0;
+        int losses = 0;
+        for (GameResult result : results) {
+            if (Double.isNaN(result.getScore(first)) || Double.isNaN(result.getScore(second))) {
+                continue;
+            }
+
+            double score = result.getScore(first);
+            if (score == 1) {
+                wins++;
+            } else if (score == 0) {
+                losses++;
+            } else {
+                draws++;
+            }
+        }
+        return new EloEstimate(wins, draws, losses);
+    }
+
+    private void shutdownEngines() {
+        for (ComputerPlayer[] players = createdEngines.poll(); players != null; players = createdEngines.poll()) {
+            for (ComputerPlayer player : players) {
+                player.shutdown();
+            }
+        }
+    }
+
+    private ComputerPlayer[] createEngines() {
+        ComputerPlayer[] players = new ComputerPlayer[specs.size()];
+        for (int i = 0; i < players.length; i++) {
+            Player player = Players.create(specs.get(i), "#" + i + " " + specs.get(i));
+            if (!(player instanceof ComputerPlayer)) {
+                throw new IllegalArgumentException("В турнире играют только компьютерные игроки: " + specs.get(i));
+            }
+            players[i] = (ComputerPlayer) player;
+        }
+        createdEngines.add(players);
+        return players;
+    }
+
+    public List<String> getSpecs() {
+        return specs;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 5) {
+            System.out.println("Использование: Tournament <партий на пару> <потоки> <файл результатов> "
+                    + "[--archive=<файл>] [--variant=<вариант>] <движок> <движок> [...]");
+            return;
+        }
+
+        Metrics.startServerIfConfigured();
+        int gamesPerPair = Integer.parseInt(args[0]);
+        int threads = Integer.parseInt(args[1]);
+        int firstSpec = 3;
+        String archivePath = null;
+        if (args[firstSpec].startsWith(ARCHIVE_OPTION)) {
+            archivePath = args[firstSpec++].substring(ARCHIVE_OPTION.length());
+        }
+        GameVariant variant = GameVariant.STANDARD;
+        if (args[firstSpec].startsWith(GameVariant.OPTION)) {
+            variant = GameVariant.parse(args[firstSpec++].substring(GameVariant.OPTION.length()));
+        }
+        List<String> specs = Arrays.asList(args).subList(firstSpec, args.length);
+        Tournament tournament = new Tournament(specs, gamesPerPair, threads);
+        tournament.setVariant(variant);
+
+        List<GameResult> results;
+        long start = System.currentTimeMillis();
+        try (Writer out = new BufferedWriter(new FileWriter(args[2]));
+             GameRecordWriter archive = archivePath == null ? null : new GameRecordWriter(
+                     new BufferedOutputStream(new FileOutputStream(archivePath), 1 << 16))) {
+            tournament.setArchive(archive);
+            results = tournament.run(out);
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        System.out.printf("%d games in %d ms, %.2f games/s, %d threads%n",
+                results.size(), elapsed, results.size() * 1000.0 / elapsed, threads);
+        for (int i = 0; i < specs.size(); i++) {
+            System.out.println("#" + i + " " + specs.get(i));
+        }
+        for (int first = 0; first < specs.size(); first++) {
+            for (int second = first + 1; second < specs.size(); second++) {
+                System.out.println("#" + first + " vs #" + second + ": " + estimate(results, first, second));
+            }
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package com.company.gui;
 
+import com.company.Log.EventLog;
+import com.company.Log.Level;
 import com.company.Model.Figure;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
-
-public class BoardPanel extends JPanel implements MouseListener, MouseMotionListener, ActionListener {
+import java.awt.image.VolatileImage;
+
+/**
+ * Board view. Nothing is repainted on a timer: the panel repaints only the rectangles that change
+ * while a piece is dragged and the squares that changed after a move (see {@link #boardChanged()}).
+ * The static board layer is kept in a {@link VolatileImage}, so a partial repaint is a blit of the
+ * clipped background plus the pieces on the squares inside the clip.
+ *
+ * While a piece is dragged its legal destinations are highlighted. They come from a per-position
+ * cache (see {@link MoveHints}), so the overlay costs one rectangle per destination square.
+ *
+ * Images are loaded from the classpath in the background (see {@link ImageCache}); until they are
+ * decoded the panel paints an empty board and repaints itself once they arrive.
+ */
+public class BoardPanel extends JPanel implements MouseListener, MouseMotionListener {
     private static final int BOARD_WIDTH = 450;
     private static final int BOARD_HEIGHT = 450;
     private static final int BOARD_MARGIN = 22;
     private static final int BOARD_SQUARE_LENGTH = 50;
     private static final int BOARD_SQUARE_PADDING = 1;
+    private static final int BOARD_SQUARES = 8;
+    private static final int PIECE_SIZE = 48;
+    private static final Color HINT_COLOR = new Color(0, 255, 0, 80);
+    private static final String BOARD_IMAGE = "board.jpg";
+    private static final String WHITE_PIECE_IMAGE = "white.png";
+    private static final String BLACK_PIECE_IMAGE = "black.png";
+    private static final Rectangle WHITE_MARKER = new Rectangle(225, 20, 205, 3);
+    private static final Rectangle BLACK_MARKER = new Rectangle(20, 428, 205, 3);
     private transient Image boardImage;
     private transient Image whitePieceImage;
     private transient Image blackPieceImage;
@@ -23,12 +42,17 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
     private transient BoardPanelPiece movingBoardPanelPiece;
     private transient Point movingPiecePos;
     private transient GraphicInterface boardPanelListener;
+    private transient VolatileImage boardLayer;
+    private final transient EventLog log = EventLog.getDefault();
+    private final Figure.Color[] paintedColors = new Figure.Color[BOARD_SQUARES * BOARD_SQUARES];
+    // legal destinations of the piece being dragged, indexed as y * BOARD_SQUARES + x
+    private long hintedSquares;
 
     public void initComponents() {
-        // load images
-        boardImage = getImage("C:/Users/Valcorian/Desktop/board.jpg");
-        whitePieceImage = getImage("C:/Users/Valcorian/Desktop/white.png");
-        blackPieceImage = getImage("C:/Users/Valcorian/Desktop/black.png");
+        // load images in the background and repaint once they are decoded
+        ImageCache images = ImageCache.forDefaultScreen();
+        images.preload(BOARD_IMAGE, WHITE_PIECE_IMAGE, BLACK_PIECE_IMAGE).whenComplete((ignored, error) ->
+                SwingUtilities.invokeLater(() -> imagesLoaded(images, error)));
 
         // set panel size
         setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
@@ -37,26 +61,53 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         addMouseListener(this);
         addMouseMotionListener(this);
 
-        // image refresh timer
-        new Timer(10, this).start();
+        // remember the position we are about to paint
+        snapshotColors();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        // draw board
-        g.drawImage(boardImage, 0, 0, this);
+        // draw board; contents of a volatile image can be lost at any time, so retry until they are not
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        do {
+            if (!validateBoardLayer()) {
+                g.drawImage(boardImage, 0, 0, this);
+                break;
+            }
+            g.drawImage(boardLayer, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, this);
+        } while (boardLayer.contentsLost());
         markCurrentPlayer(g);
 
-        // draw pieces
-        for (int x = 0; x < 8; ++x) {
-            for (int y = 0; y < 8; ++y) {
+        // draw move hints
+        if (hintedSquares != 0) {
+            g.setColor(HINT_COLOR);
+            for (long hints = hintedSquares; hints != 0; hints &= hints - 1) {
+                int square = Long.numberOfTrailingZeros(hints);
+                Point hintPos = squareToPosition(square % BOARD_SQUARES, square / BOARD_SQUARES);
+                g.fillRect(hintPos.x, hintPos.y, BOARD_SQUARE_LENGTH, BOARD_SQUARE_LENGTH);
+            }
+        }
+
+        // draw pieces on the squares inside the clip only
+        int step = BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING;
+        int fromX = Math.max(0, (clip.x - BOARD_MARGIN - BOARD_SQUARE_PADDING) / step);
+        int fromY = Math.max(0, (clip.y - BOARD_MARGIN - BOARD_SQUARE_PADDING) / step);
+        int toX = Math.min(BOARD_SQUARES - 1, (clip.x + clip.width - BOARD_MARGIN) / step);
+        int toY = Math.min(BOARD_SQUARES - 1, (clip.y + clip.height - BOARD_MARGIN) / step);
+        for (int x = fromX; x <= toX; ++x) {
+            for (int y = fromY; y <= toY; ++y) {
                 if (movingBoardPanelPiece == null || !movingBoardPanelPiece.isAt(x, y)) {
-                    BoardPanelPiece piece = pieceAtSquare(new Point(x, y));
-                    if (piece != null) {
-                        Point piecePos = squareToPosition(piece.getSquare());
-                        g.drawImage(piece.getImage(), piecePos.x, piecePos.y, this);
+                    Figure.Color color = paintedColors[y * BOARD_SQUARES + x];
+                    if (color != null) {
+                        Point piecePos = squareToPosition(x, y);
+                        g.drawImage(color == Figure.Color.WHITE ? whitePieceImage : blackPieceImage,
+                                piecePos.x, piecePos.y, this);
                     }
                 }
             }
@@ -66,9 +117,90 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         if (movingBoardPanelPiece != null) {
             g.drawImage(movingBoardPanelPiece.getImage(), movingPiecePos.x, movingPiecePos.y, this);
         }
+    }
+
+    private void imagesLoaded(ImageCache images, Throwable error) {
+        if (error != null) {
+            log.log(Level.ERROR, "gui", "Error loading images: " + error.getMessage());
+            return;
+        }
+
+        boardImage = images.get(BOARD_IMAGE, BOARD_WIDTH, BOARD_HEIGHT);
+        whitePieceImage = images.get(WHITE_PIECE_IMAGE, PIECE_SIZE, PIECE_SIZE);
+        blackPieceImage = images.get(BLACK_PIECE_IMAGE, PIECE_SIZE, PIECE_SIZE);
+        if (boardLayer != null) {
+            renderBoardLayer();
+        }
+        repaint();
+    }
+
+    /**
+     * Repaints the squares whose pieces changed since the last call and the current player marker.
+     * Must be called on the event dispatch thread after every move.
+     */
+    public void boardChanged() {
+        for (int y = 0; y < BOARD_SQUARES; ++y) {
+            for (int x = 0; x < BOARD_SQUARES; ++x) {
+                Figure.Color color = boardPanelListener.getColorAt(x, y);
+                if (paintedColors[y * BOARD_SQUARES + x] != color) {
+                    paintedColors[y * BOARD_SQUARES + x] = color;
+                    repaint(squareBounds(squareToPosition(x, y)));
+                }
+            }
+        }
+        repaint(WHITE_MARKER);
+        repaint(BLACK_MARKER);
+    }
 
-        // make sure we update the graphics
-        Toolkit.getDefaultToolkit().sync();
+    private void repaintSquares(long squares) {
+        for (; squares != 0; squares &= squares - 1) {
+            int square = Long.numberOfTrailingZeros(squares);
+            repaint(squareBounds(squareToPosition(square % BOARD_SQUARES, square / BOARD_SQUARES)));
+        }
+    }
+
+    private void snapshotColors() {
+        for (int y = 0; y < BOARD_SQUARES; ++y) {
+            for (int x = 0; x < BOARD_SQUARES; ++x) {
+                paintedColors[y * BOARD_SQUARES + x] = boardPanelListener.getColorAt(x, y);
+            }
+        }
+    }
+
+    /**
+     * (Re)creates the cached board layer if it does not exist or was lost by the graphics device.
+     * @return false if the panel cannot create volatile images, e.g. when it is not displayable.
+     */
+    private boolean validateBoardLayer() {
+        int status = boardLayer == null
+                ? VolatileImage.IMAGE_INCOMPATIBLE : boardLayer.validate(getGraphicsConfiguration());
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            boardLayer = createVolatileImage(BOARD_WIDTH, BOARD_HEIGHT);
+            if (boardLayer == null) {
+                return false;
+            }
+            renderBoardLayer();
+        } else if (status == VolatileImage.IMAGE_RESTORED) {
+            // The surface survived but its contents are undefined after a restore.
+            renderBoardLayer();
+        }
+        return true;
+    }
+
+    private void renderBoardLayer() {
+        Graphics2D g = boardLayer.createGraphics();
+        try {
+            g.drawImage(boardImage, 0, 0, this);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * The area a piece image occupies when drawn at the specified component coordinates.
+     */
+    private static Rectangle squareBounds(Point piecePos) {
+        return new Rectangle(piecePos.x, piecePos.y, BOARD_SQUARE_LENGTH, BOARD_SQUARE_LENGTH);
     }
 
     /**
@@ -77,12 +209,16 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
      * @return Point holding component coordinates.
      */
     Point squareToPosition(Point square) {
+        return squareToPosition(square.x, square.y);
+    }
+
+    private Point squareToPosition(int x, int y) {
         return new Point(
                 BOARD_MARGIN + BOARD_SQUARE_PADDING +
-                        (square.x * (BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING)),
+                        (x * (BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING)),
 
                 BOARD_MARGIN + BOARD_SQUARE_PADDING +
-                        (square.y * (BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING)));
+                        (y * (BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING)));
     }
 
     /**
@@ -101,7 +237,7 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         col /= (BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING);
         row /= (BOARD_SQUARE_LENGTH + BOARD_SQUARE_PADDING);
 
-        if (col >= 8 || row >= 8) {
+        if (col >= BOARD_SQUARES || row >= BOARD_SQUARES) {
             return null;
         }
 
@@ -124,11 +260,9 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
 
     private void markCurrentPlayer(Graphics g) {
         g.setColor(Color.GREEN);
-        if (boardPanelListener.getCurrentPlayer().getColor() == Figure.Color.WHITE) {
-            g.fillRect(225, 20, 205, 3);
-        } else {
-            g.fillRect(20, 428, 205, 3);
-        }
+        Rectangle marker = boardPanelListener.getCurrentPlayer().getColor() == Figure.Color.WHITE
+                ? WHITE_MARKER : BLACK_MARKER;
+        g.fillRect(marker.x, marker.y, marker.width, marker.height);
     }
 
     String getSquareName(Point square) {
@@ -144,17 +278,25 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
             // check to see if there's a piece at that square
             movingBoardPanelPiece = pieceAtSquare(square);
             if (movingBoardPanelPiece != null) {
-                System.out.println("Picking up piece: {}" + movingBoardPanelPiece);
+                // build the message only if it will be written
+                if (log.isEnabled(Level.DEBUG)) {
+                    log.log(Level.DEBUG, "gui", "Picking up piece: " + movingBoardPanelPiece);
+                }
 
                 // save the mouse position so we can move the piece relative to the drag
                 // and convert the square coordinates to actual component coordinates to
                 // float the image while we drag the mouse.
                 lastMousePos = mouseEvent.getPoint();
                 movingPiecePos = squareToPosition(square);
+                repaint(squareBounds(movingPiecePos));
+
+                // highlight where the piece can go
+                hintedSquares = boardPanelListener.getLegalDestinations(square.x, square.y);
+                repaintSquares(hintedSquares);
             }
 
         } else {
-            System.out.println("Clicked outside the board.");
+            log.log(Level.DEBUG, "gui", "Clicked outside the board.");
         }
     }
 
@@ -169,16 +311,24 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         // and if we did, check to see that there's not another piece
         // already there.
         Point targetSquare = positionToSquare(mouseEvent.getPoint());
-        if (boardPanelListener != null) {
-            System.out.println("Dropping piece: " + movingBoardPanelPiece +
-                    " to (" + targetSquare.x + ", " + targetSquare.y + ")");
+        if (boardPanelListener != null && targetSquare != null) {
+            if (log.isEnabled(Level.DEBUG)) {
+                log.log(Level.DEBUG, "gui", "Dropping piece: " + movingBoardPanelPiece
+                        + " to (" + targetSquare.x + ", " + targetSquare.y + ")");
+            }
             boardPanelListener.movingPiece(
                     getSquareName(movingBoardPanelPiece.getSquare()),
                     getSquareName(targetSquare));
         }
 
-        // Set moving piece to null so we don't paint it anymore.
+        // Set moving piece to null so we don't paint it anymore, and repaint where it was
+        // floating and the square it was picked up from.
+        repaint(squareBounds(movingPiecePos));
+        repaint(squareBounds(squareToPosition(movingBoardPanelPiece.getSquare())));
+        repaintSquares(hintedSquares);
+        hintedSquares = 0;
         movingBoardPanelPiece = null;
+        movingPiecePos = null;
     }
 
     @Override
@@ -187,21 +337,19 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         if (movingPiecePos != null) {
             // Update the moving piece coordinates
             // by the amount the mouse has moved.
+            Rectangle dirty = squareBounds(movingPiecePos);
             movingPiecePos.translate(
                     mouseEvent.getX() - lastMousePos.x,
                     mouseEvent.getY() - lastMousePos.y);
 
+            // repaint the old and the new piece area only
+            repaint(dirty.union(squareBounds(movingPiecePos)));
+
             // update the mouse's last position for next cycle.
             lastMousePos = mouseEvent.getPoint();
         }
     }
 
-    @Override
-    public void actionPerformed(ActionEvent actionEvent) {
-        // This method is called by the timer, and we just repaint the component.
-        repaint();
-    }
-
     @Override
     public void mouseClicked(MouseEvent mouseEvent) {
         /* No need to handle clicks */
@@ -222,20 +370,6 @@ public class BoardPanel extends JPanel implements MouseListener, MouseMotionList
         /* No need to test for exit */
     }
 
-    public static Image getImage(String filename) {
-        File file = new File(filename);
-        if (!file.exists()) {
-            throw new IllegalArgumentException("Image \"" + filename + "\" not found.");
-        }
-
-        try {
-            return ImageIO.read(file);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Error loading image: " + filename, e);
-        }
-    }
-
-
     public void addMoveListener(GraphicInterface moveListener) {
         this.boardPanelListener = moveListener;
     }
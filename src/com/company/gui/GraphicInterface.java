@@ -1,37 +1,74 @@
 package com.company.gui;
 
+import com.company.Engine.ComputerPlayer;
+import com.company.Engine.Players;
+import com.company.Game.GameListener;
 import com.company.Game.UgolkiGame;
 import com.company.Game.UgolkiPathChecker;
 import com.company.Game.UgolkiWinCriteria;
 import com.company.Game.WinCheckResponse;
+import com.company.Log.EventLog;
+import com.company.Log.Level;
+import com.company.Metrics.Metrics;
+import com.company.Model.BitBoard;
 import com.company.Model.Board;
 import com.company.Model.Cell;
 import com.company.Model.Figure;
 import com.company.Model.Player;
+import com.company.Record.GameRecordWriter;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class GraphicInterface extends JFrame implements ActionListener{
     private transient UgolkiGame game;
     private transient Board board;
+    private BoardPanel boardPanel;
+    private transient MoveHints moveHints;
     private JLabel currentPlayerLabel;
     private JLabel statusLabel;
 
     public GraphicInterface() {
-        initGame();
+        this(new Player("Dummy Player"), new Player("Test Player"));
+    }
+
+    /**
+     * Создает окно игры для указанных игроков. Любой из игроков может быть компьютерным.
+     *
+     * @param player1 Первый игрок
+     * @param player2 Второй игрок
+     */
+    public GraphicInterface(Player player1, Player player2) {
+        this(player1, player2, null);
+    }
+
+    /**
+     * Создает окно игры для указанных игроков и подключает к игре наблюдателя до начала партии.
+     *
+     * @param player1  Первый игрок
+     * @param player2  Второй игрок
+     * @param listener Наблюдатель игры, например, {@link GameRecordWriter}, или {@code null}
+     */
+    public GraphicInterface(Player player1, Player player2, GameListener listener) {
+        initGame(player1, player2);
+        game.setGameListener(listener);
         initMenuBar();
         initUI();
         game.startGame();
+        boardPanel.boardChanged();
+        refreshCurrentPlayer();
+        requestComputerMove();
     }
 
-    private void initGame() {
+    private void initGame(Player player1, Player player2) {
         board = new Board();
         UgolkiPathChecker pathChecker = new UgolkiPathChecker(board);
-        Player player1 = new Player("Dummy Player");
-        Player player2 = new Player("Test Player");
         UgolkiWinCriteria winCriteria = new UgolkiWinCriteria();
         game = new UgolkiGame(board, player1, player2, pathChecker, winCriteria);
+        moveHints = new MoveHints(game);
     }
 
     private void initMenuBar() {
@@ -55,7 +92,7 @@ public class GraphicInterface extends JFrame implements ActionListener{
     }
 
     private void initUI() {
-        BoardPanel boardPanel = new BoardPanel();
+        boardPanel = new BoardPanel();
         boardPanel.addMoveListener(this);
         boardPanel.initComponents();
 
@@ -86,10 +123,42 @@ public class GraphicInterface extends JFrame implements ActionListener{
                 .build();
     }
 
+    /**
+     * Цвет фигуры на клетке без создания объектов, для отрисовки доски.
+     *
+     * @return Цвет фигуры или {@code null}, если клетка пуста.
+     */
+    public Figure.Color getColorAt(int x, int y) {
+        BitBoard bitBoard = board.getBitBoard();
+        return bitBoard.getColor(bitBoard.index(x, y));
+    }
+
+    /**
+     * Клетки, куда может пойти фигура с указанной клетки, для подсказки при перетаскивании.
+     *
+     * @return Маска клеток с индексами {@code y * 8 + x} или 0, если фигура не может ходить или сейчас
+     * ходит компьютер.
+     */
+    public long getLegalDestinations(int x, int y) {
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        if (game.getActivePlayer() instanceof ComputerPlayer
+                || status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT) {
+            return 0;
+        }
+        return moveHints.getDestinations(board.getBitBoard().index(x, y));
+    }
+
     public void movingPiece(String from, String to) {
+        if (game.getActivePlayer() instanceof ComputerPlayer) {
+            statusLabel.setForeground(Color.RED);
+            statusLabel.setText("Сейчас ходит компьютер.");
+            return;
+        }
+
         try {
             resetStatusLabel();
             game.move(from, to);
+            boardPanel.boardChanged();
             checkGameStatus();
 
         } catch (IllegalArgumentException e) {
@@ -114,7 +183,41 @@ public class GraphicInterface extends JFrame implements ActionListener{
                     "Game Over", JOptionPane.PLAIN_MESSAGE);
         } else {
             refreshCurrentPlayer();
+            requestComputerMove();
+        }
+    }
+
+    /**
+     * Если сейчас ходит компьютерный игрок, запускает поиск хода в фоновом потоке
+     * и выполняет найденный ход в потоке обработки событий.
+     */
+    private void requestComputerMove() {
+        if (!(game.getActivePlayer() instanceof ComputerPlayer)) {
+            return;
         }
+
+        ComputerPlayer player = (ComputerPlayer) game.getActivePlayer();
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return player.selectMove(game);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int move = get();
+                    game.move(move);
+                    boardPanel.boardChanged();
+                    statusLabel.setForeground(Color.BLACK);
+                    statusLabel.setText(player.getName() + ": " + player.getLastReport());
+                    checkGameStatus();
+                } catch (Exception e) {
+                    statusLabel.setForeground(Color.RED);
+                    statusLabel.setText(e.getMessage());
+                }
+            }
+        }.execute();
     }
 
     private void refreshCurrentPlayer() {
@@ -135,9 +238,41 @@ public class GraphicInterface extends JFrame implements ActionListener{
         }
     }
 
-    public static void main(String[] args) {
+    /**
+     * @param args Описания первого и второго игрока, например, "human alphabeta:1000". Параметр
+     *             {@code --record=<файл>} в любом месте включает запись партии в файл, который
+     *             закрывается при закрытии окна.
+     */
+    public static void main(String[] args) throws IOException {
+        String recordPath = null;
+        List<String> positional = new ArrayList<String>();
+        for (String arg : args) {
+            if (arg.startsWith(GameRecordWriter.OPTION)) {
+                recordPath = arg.substring(GameRecordWriter.OPTION.length());
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        Player player1 = Players.create(positional.size() > 0 ? positional.get(0) : Players.HUMAN, "Dummy Player");
+        Player player2 = Players.create(positional.size() > 1 ? positional.get(1) : Players.HUMAN, "Test Player");
+        Metrics.startServerIfConfigured();
+        GameRecordWriter record = recordPath == null ? null : GameRecordWriter.open(recordPath);
         EventQueue.invokeLater(() -> {
-            GraphicInterface app = new GraphicInterface();
+            GraphicInterface app = new GraphicInterface(player1, player2, record);
+            if (record != null) {
+                // Слушатели окна вызываются до завершения приложения по EXIT_ON_CLOSE.
+                app.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        try {
+                            record.close();
+                        } catch (IOException ex) {
+                            EventLog.getDefault().log(Level.ERROR, "gui", "Не удалось записать партию: " + ex.getMessage());
+                        }
+                    }
+                });
+            }
             app.setVisible(true);
         });
     }
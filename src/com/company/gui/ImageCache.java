@@ -0,0 +1,124 @@
+package com.company.gui;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Кэш изображений интерфейса.
+ *
+ * Исходные изображения читаются из ресурсов classpath ({@link #RESOURCE_DIRECTORY}) и декодируются в
+ * фоновом потоке, поэтому запуск не блокирует поток обработки событий. Для каждого запрошенного размера
+ * один раз создается масштабированная копия в формате, совместимом с экраном, и при отрисовке
+ * {@code drawImage} только копирует ее без масштабирования и преобразования пикселей.
+ */
+class ImageCache {
+    static final String RESOURCE_DIRECTORY = "/com/company/resources/";
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, CompletableFuture<BufferedImage>> sources =
+            new ConcurrentHashMap<String, CompletableFuture<BufferedImage>>();
+    private final Map<String, Image> scaled = new ConcurrentHashMap<String, Image>();
+    private final GraphicsConfiguration configuration;
+
+    /**
+     * @param configuration Конфигурация экрана, с которой совместимы изображения, или {@code null}
+     *                      без экрана.
+     */
+    ImageCache(GraphicsConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Создает кэш для основного экрана.
+     */
+    static ImageCache forDefaultScreen() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new ImageCache(null);
+        }
+        return new ImageCache(GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration());
+    }
+
+    /**
+     * Запускает фоновую загрузку изображений.
+     *
+     * @param names Имена файлов в каталоге ресурсов.
+     * @return Завершается, когда все изображения декодированы, или с ошибкой загрузки.
+     */
+    CompletableFuture<Void> preload(String... names) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            futures[i] = source(names[i]);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Изображение указанного размера, совместимое с экраном.
+     *
+     * @param name   Имя файла в каталоге ресурсов.
+     * @param width  Ширина в пикселях.
+     * @param height Высота в пикселях.
+     * @return Изображение или {@code null}, если исходное изображение еще не загружено.
+     */
+    Image get(String name, int width, int height) {
+        CompletableFuture<BufferedImage> source = source(name);
+        if (!source.isDone()) {
+            return null;
+        }
+        return scaled.computeIfAbsent(name + '@' + width + 'x' + height,
+                key -> scale(source.join(), width, height));
+    }
+
+    private CompletableFuture<BufferedImage> source(String name) {
+        return sources.computeIfAbsent(name, key -> CompletableFuture.supplyAsync(() -> decode(key), LOADER));
+    }
+
+    private Image scale(BufferedImage source, int width, int height) {
+        int transparency = source.getColorModel().getTransparency();
+        BufferedImage image = configuration != null
+                ? configuration.createCompatibleImage(width, height, transparency)
+                : new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                        ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static BufferedImage decode(String name) {
+        URL url = ImageCache.class.getResource(RESOURCE_DIRECTORY + name);
+        if (url == null) {
+            throw new IllegalArgumentException("Image \"" + name + "\" not found.");
+        }
+
+        try {
+            BufferedImage image = ImageIO.read(url);
+            if (image == null) {
+                throw new IllegalArgumentException("Unsupported image format: " + name);
+            }
+            return image;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error loading image: " + name, e);
+        }
+    }
+}
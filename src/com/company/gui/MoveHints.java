@@ -0,0 +1,54 @@
+package com.company.gui;
+
+import com.company.Game.UgolkiGame;
+import com.company.Game.UgolkiMoveGenerator;
+import com.company.Model.BitBoard;
+
+import java.util.Arrays;
+
+/**
+ * Кэш допустимых ходов для подсказок при перетаскивании фигуры.
+ *
+ * Клетки назначения всех фигур стороны, которая ходит, вычисляются один раз для позиции и хранятся
+ * масками по индексу клетки. Кэш сбрасывается, когда меняется ключ позиции, то есть после любого хода,
+ * поэтому отрисовка подсказок не перебирает цепочки прыжков и стоит одинаково для любой позиции. Ключ
+ * учитывает расстановку, очередь хода и последний ход черных за ничью, то есть все, от чего зависят
+ * допустимые ходы, поэтому отдельного сброса кэша при новой партии не нужно.
+ * Используется только из потока обработки событий.
+ */
+class MoveHints {
+    private final UgolkiGame game;
+    private final UgolkiMoveGenerator generator;
+    private final long[] destinations;
+    private long positionKey;
+
+    MoveHints(UgolkiGame game) {
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        this.game = game;
+        this.generator = new UgolkiMoveGenerator(bitBoard);
+        this.destinations = new long[bitBoard.getSize()];
+    }
+
+    /**
+     * @param square Индекс клетки.
+     * @return Маска клеток, куда может пойти фигура с клетки, или 0, если на ней нет фигуры стороны,
+     * которая ходит.
+     */
+    long getDestinations(int square) {
+        long key = game.getPositionKey();
+        if (key != positionKey) {
+            recompute();
+            positionKey = key;
+        }
+        return destinations[square];
+    }
+
+    private void recompute() {
+        Arrays.fill(destinations, 0);
+        for (long pieces = generator.getBitBoard().getMask(game.getActiveColor()); pieces != 0;
+             pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            destinations[square] = generator.getDestinations(square);
+        }
+    }
+}
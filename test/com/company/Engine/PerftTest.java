@@ -0,0 +1,143 @@
+package com.company.Engine;
+
+import com.company.Game.GameVariant;
+import com.company.Game.PositionFormat;
+import com.company.Game.UgolkiGame;
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Эталонные значения perft. Числа закреплены, поэтому любое изменение генератора ходов, меняющее
+ * множество ходов, ломает тест. Для небольших глубин они дополнительно сверяются с независимым
+ * медленным перебором по правилам игры, который не использует {@code UgolkiMoveGenerator}.
+ */
+class PerftTest {
+    private static final String MIDGAME =
+            "..x.x.xx/...xo.x./.x.o.x../..xo.o../.o.x..x./o..o..../oo....o./o.o.....";
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    @Test
+    void startPosition() {
+        UgolkiGame game = createGame(GameVariant.STANDARD);
+        Perft perft = new Perft(game);
+
+        long[] expected = { 1, 14, 196, 4412, 99597, 2559237 };
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertEquals(expected[depth], perft.perft(depth), "perft(" + depth + ")");
+        }
+        assertEquals(referencePerft(game.getBoard().getBitBoard(), Figure.Color.WHITE, 3), perft.perft(3));
+    }
+
+    @Test
+    void midgamePosition() {
+        UgolkiGame game = createGame(GameVariant.STANDARD);
+        setPosition(game, MIDGAME, Figure.Color.WHITE);
+        Perft perft = new Perft(game);
+
+        long[] expected = { 1, 54, 2429, 120007, 5381232 };
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertEquals(expected[depth], perft.perft(depth), "perft(" + depth + ")");
+        }
+        assertEquals(referencePerft(game.getBoard().getBitBoard(), Figure.Color.WHITE, 3), perft.perft(3));
+
+        setPosition(game, MIDGAME, Figure.Color.BLACK);
+        assertEquals(5471579, perft.perft(4));
+    }
+
+    @Test
+    void largeBoardStartPosition() {
+        UgolkiGame game = createGame(GameVariant.parse("10x10:4x4"));
+        Perft perft = new Perft(game);
+
+        long[] expected = { 1, 16, 256, 6496, 164836 };
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertEquals(expected[depth], perft.perft(depth), "perft(" + depth + ")");
+        }
+        assertEquals(referencePerft(game.getBoard().getBitBoard(), Figure.Color.WHITE, 3), perft.perft(3));
+    }
+
+    private static UgolkiGame createGame(GameVariant variant) {
+        UgolkiGame game = variant.createGame(new Player("White"), new Player("Black"));
+        game.startGame();
+        return game;
+    }
+
+    private static void setPosition(UgolkiGame game, String text, Figure.Color sideToMove) {
+        BitBoard board = game.getBoard().getBitBoard();
+        BitBoard position = new BitBoard(board.getWidth(), board.getHeight());
+        PositionFormat.parse(text, position);
+        game.setPosition(position, sideToMove);
+    }
+
+    /**
+     * Перебор по правилам: шаг на соседнюю пустую клетку или цепочка прыжков через соседнюю фигуру
+     * на пустую клетку за ней; исходная клетка на время хода свободна. Окончание игры не проверяется,
+     * поэтому перебор годится только для позиций, далеких от заполнения лагерей.
+     */
+    private static long referencePerft(BitBoard board, Figure.Color side, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        Figure.Color opponent = side == Figure.Color.WHITE ? Figure.Color.BLACK : Figure.Color.WHITE;
+        long nodes = 0;
+        for (int from = 0; from < board.getSize(); from++) {
+            if (board.getColor(from) != side) {
+                continue;
+            }
+
+            board.clear(from);
+            boolean[] destinations = destinations(board, from);
+            for (int to = 0; to < board.getSize(); to++) {
+                if (destinations[to]) {
+                    board.set(to, side);
+                    nodes += referencePerft(board, opponent, depth - 1);
+                    board.clear(to);
+                }
+            }
+            board.set(from, side);
+        }
+        return nodes;
+    }
+
+    private static boolean[] destinations(BitBoard board, int from) {
+        int width = board.getWidth();
+        boolean[] reached = new boolean[board.getSize()];
+        boolean[] jumped = new boolean[board.getSize()];
+        int[] queue = new int[board.getSize()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        jumped[from] = true;
+
+        for (int direction = 0; direction < DX.length; direction++) {
+            int step = board.index(from % width + DX[direction], from / width + DY[direction]);
+            if (step >= 0 && board.getColor(step) == null) {
+                reached[step] = true;
+            }
+        }
+        while (head < tail) {
+            int square = queue[head++];
+            int x = square % width;
+            int y = square / width;
+            for (int direction = 0; direction < DX.length; direction++) {
+                int over = board.index(x + DX[direction], y + DY[direction]);
+                int target = board.index(x + 2 * DX[direction], y + 2 * DY[direction]);
+                if (over >= 0 && target >= 0 && board.getColor(over) != null
+                        && board.getColor(target) == null && !jumped[target]) {
+                    jumped[target] = true;
+                    reached[target] = true;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        reached[from] = false;
+        return reached;
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.Engine;
+
+import com.company.Game.UgolkiWinCriteria;
+import com.company.Model.BitBoard;
+import com.company.Model.Board;
+import com.company.Model.Figure;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Индекс таблицы эндшпиля должен быть совершенным хешем: {@link Tablebase#unindex(long)} обращает
+ * {@link Tablebase#index(long)} на всех записях. Расстояния нескольких позиций стандартной доски
+ * с K = 2 сверяются с числом ходов, посчитанным вручную.
+ */
+class TablebaseTest {
+    private static final int MAX_OUTSIDE = 2;
+    private static final long ENTRIES = 88141;
+
+    private static BitBoard bitBoard;
+    private static long target;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws InterruptedException, IOException {
+        bitBoard = new Board().getBitBoard();
+        target = new UgolkiWinCriteria().getWinMask(bitBoard, Figure.Color.WHITE);
+        byte[] file = new TablebaseGenerator(bitBoard, target, MAX_OUTSIDE, 1).generate();
+        tablebase = Tablebase.read(ByteBuffer.wrap(file));
+    }
+
+    @Test
+    void indexRoundTrips() {
+        assertEquals(ENTRIES, tablebase.getEntryCount());
+        int pieces = Long.bitCount(target);
+        for (long index = 0; index < ENTRIES; index++) {
+            long mask = tablebase.unindex(index);
+            assertEquals(pieces, Long.bitCount(mask), "фигуры в позиции " + index);
+            assertTrue(Long.bitCount(mask & ~target) <= MAX_OUTSIDE, "фигуры вне зоны в позиции " + index);
+            assertEquals(index, tablebase.index(mask), "индекс позиции " + index);
+        }
+    }
+
+    @Test
+    void positionsOutsideTableAreRejected() {
+        assertEquals(0, tablebase.index(target));
+        assertEquals(-1, tablebase.index(target & (target - 1)));
+        assertEquals(-1, tablebase.index(shiftOut(shiftOut(shiftOut(target)))));
+    }
+
+    @Test
+    void distances() {
+        assertEquals(0, tablebase.probe(target, Figure.Color.WHITE));
+
+        // Каждая выведенная на соседнюю клетку фигура возвращается одним ходом.
+        long oneOut = shiftOut(target);
+        long twoOut = shiftOut(oneOut);
+        assertEquals(1, tablebase.probe(oneOut, Figure.Color.WHITE));
+        assertEquals(2, tablebase.probe(twoOut, Figure.Color.WHITE));
+
+        // Позиция черных переводится в позицию белых поворотом доски.
+        assertEquals(0, tablebase.probe(tablebase.rotate(target), Figure.Color.BLACK));
+        assertEquals(2, tablebase.probe(tablebase.rotate(twoOut), Figure.Color.BLACK));
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(shiftOut(twoOut), Figure.Color.WHITE));
+    }
+
+    /**
+     * Выводит одну фигуру из целевой зоны на свободную соседнюю клетку вне зоны, которая граничит
+     * с освобожденной клеткой.
+     */
+    private static long shiftOut(long mask) {
+        int width = bitBoard.getWidth();
+        for (long rest = mask & target; rest != 0; rest &= rest - 1) {
+            int from = Long.numberOfTrailingZeros(rest);
+            int[][] steps = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+            for (int[] step : steps) {
+                int to = bitBoard.index(from % width + step[0], from / width + step[1]);
+                if (to >= 0 && (target >>> to & 1) == 0 && (mask >>> to & 1) == 0) {
+                    return mask ^ BitBoard.bit(from) ^ BitBoard.bit(to);
+                }
+            }
+        }
+        throw new IllegalStateException("Нет фигуры, которую можно вывести из зоны");
+    }
+}
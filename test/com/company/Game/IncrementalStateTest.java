@@ -0,0 +1,114 @@
+package com.company.Game;
+
+import com.company.Model.BitBoard;
+import com.company.Model.Figure;
+import com.company.Model.Player;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Инкрементальное состояние игры, которое обновляют {@link UgolkiGame#makeMove(int)} и
+ * {@link UgolkiGame#unmakeMove(int)}, должно совпадать с полным пересчетом по позиции: оценка
+ * {@link UgolkiEvaluator}, счетчики фигур в целевых зонах {@link UgolkiWinCriteria} и ключ Zobrist.
+ * Партии разыгрываются со случайным зерном, ходы выбираются то жадно по оценке, то случайно, чтобы
+ * партии доходили до заполнения лагерей и окончания игры.
+ */
+class IncrementalStateTest {
+    private static final int GAMES = 20;
+    private static final int MAX_PLIES = 400;
+    private static final double GREEDY_SHARE = 0.7;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "8x8:4x3", "10x10:4x4", "9x7:3x3" })
+    void incrementalStateMatchesFullRecompute(String variantText) {
+        GameVariant variant = GameVariant.parse(variantText);
+        SplittableRandom random = new SplittableRandom(variantText.hashCode());
+
+        for (int game = 0; game < GAMES; game++) {
+            UgolkiGame ugolki = variant.createGame(new Player("Player 1"), new Player("Player 2"));
+            ugolki.setRandom(random.split());
+            ugolki.startGame();
+            playAndRewind(ugolki, random);
+        }
+    }
+
+    private static void playAndRewind(UgolkiGame game, SplittableRandom random) {
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        int[] moves = new int[game.getMaxMoves()];
+        int[] played = new int[MAX_PLIES];
+        long[] keys = new long[MAX_PLIES];
+        WinCheckResponse.Status[] statuses = new WinCheckResponse.Status[MAX_PLIES];
+        int plies = 0;
+
+        assertConsistent(game, "начальная позиция");
+        while (plies < MAX_PLIES && !isOver(game)) {
+            int count = game.generateMoves(moves, 0);
+            if (count == 0) {
+                break;
+            }
+            int move = random.nextDouble() < GREEDY_SHARE ? bestMove(game, moves, count) : moves[random.nextInt(count)];
+
+            keys[plies] = bitBoard.getKey();
+            statuses[plies] = game.getCurrentStatus();
+            played[plies++] = move;
+            game.makeMove(move);
+            assertConsistent(game, "ход " + plies);
+        }
+
+        while (plies > 0) {
+            game.unmakeMove(played[--plies]);
+            assertEquals(keys[plies], bitBoard.getKey(), "ключ после отмены хода " + (plies + 1));
+            assertEquals(statuses[plies], game.getCurrentStatus(), "статус после отмены хода " + (plies + 1));
+            assertConsistent(game, "отмена хода " + (plies + 1));
+        }
+    }
+
+    private static void assertConsistent(UgolkiGame game, String where) {
+        BitBoard bitBoard = game.getBoard().getBitBoard();
+        for (Figure.Color color : Figure.Color.values()) {
+            assertEquals(game.getEvaluator().evaluate(bitBoard, color), game.evaluation(color),
+                    "оценка " + color + ", " + where);
+        }
+
+        UgolkiWinCriteria fresh = new UgolkiWinCriteria(game.getWinCriteria());
+        fresh.reset(bitBoard);
+        for (Figure.Color color : Figure.Color.values()) {
+            assertEquals(fresh.getPiecesInTarget(color), game.getWinCriteria().getPiecesInTarget(color),
+                    "фигуры в целевой зоне " + color + ", " + where);
+        }
+
+        BitBoard copy = new BitBoard(bitBoard.getWidth(), bitBoard.getHeight());
+        for (int square = 0; square < bitBoard.getSize(); square++) {
+            Figure.Color color = bitBoard.getColor(square);
+            if (color != null) {
+                copy.set(square, color);
+            }
+        }
+        assertEquals(copy.getKey(), bitBoard.getKey(), "ключ Zobrist, " + where);
+    }
+
+    private static int bestMove(UgolkiGame game, int[] moves, int count) {
+        Figure.Color side = game.getActiveColor();
+        int best = moves[0];
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            int score = game.evaluation(side);
+            game.unmakeMove(moves[i]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    private static boolean isOver(UgolkiGame game) {
+        WinCheckResponse.Status status = game.getCurrentStatus();
+        return status == WinCheckResponse.Status.FINISHED || status == WinCheckResponse.Status.DEAD_HEAT;
+    }
+}